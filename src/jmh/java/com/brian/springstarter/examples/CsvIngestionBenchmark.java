@@ -0,0 +1,203 @@
+package com.brian.springstarter.examples;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 流式 CSV 解析吞吐与峰值堆内存：输入为 sizeMb 大小的生成数据（默认 1GB），
+// 由一段约 4MB 的模板按 64KB 切块循环产生，不会一次性物化到内存。
+// 每轮结束打印 行/秒 与堆内存池的峰值占用；gc profiler 给出分配速率。
+// mappedFile / streamingFile 在同一个临时文件上对比内存映射并行聚合与流式聚合（按产品汇总收入）。
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class CsvIngestionBenchmark {
+
+    private static final int TEMPLATE_SIZE = 4 * 1024 * 1024;
+
+    @Param({"1024"})
+    int sizeMb;
+
+    private final CsvIngestionService service = new CsvIngestionService(new CsvProperties(Path.of("."), 0));
+    private final MappedCsvProcessor mappedProcessor =
+            new MappedCsvProcessor(Runtime.getRuntime().availableProcessors());
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private byte[] template;
+    private long templateRows;
+    private int repetitions;
+    private long startNanos;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        StringBuilder csv = new StringBuilder(TEMPLATE_SIZE + 64);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (csv.length() < TEMPLATE_SIZE) {
+            csv.append("product-").append(random.nextInt(10_000)).append(',')
+                    .append(random.nextInt(1, 1_000)).append('.').append(random.nextInt(10, 100)).append(',')
+                    .append(random.nextInt(1, 100)).append('\n');
+            templateRows++;
+        }
+        template = csv.toString().getBytes(StandardCharsets.UTF_8);
+        repetitions = Math.max(1, (int) ((long) sizeMb * 1024 * 1024 / template.length));
+        try {
+            file = Files.createTempFile("csv-ingestion", ".csv");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                new RepeatingInputStream(template, repetitions).transferTo(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+        mappedProcessor.close();
+        service.destroy();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakHeap() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+        startNanos = System.nanoTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long rows = templateRows * repetitions;
+        long peakHeap = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.out.printf("%n%,d rows in %.2f s: %,.0f rows/sec, peak heap %,d MB%n",
+                rows, seconds, rows / seconds, peakHeap / (1024 * 1024));
+    }
+
+    // Reactive path used by the WebFlux endpoint
+    @Benchmark
+    public long streaming() {
+        return service.revenueNdjson(input(), bufferFactory)
+                .map(buffer -> {
+                    long size = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return size;
+                })
+                .reduce(0L, Long::sum)
+                .block();
+    }
+
+    // Blocking path used by the servlet endpoint
+    @Benchmark
+    public long blocking() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        service.writeRevenueNdjson(new RepeatingInputStream(template, repetitions), out);
+        return out.count;
+    }
+
+    // Memory-mapped chunks parsed in parallel on every core
+    @Benchmark
+    public Map<String, Double> mappedFile() throws IOException {
+        return mappedProcessor.revenueByProduct(file);
+    }
+
+    // The same file read through DataBufferUtils.read and the streaming parser
+    @Benchmark
+    public Map<String, Double> streamingFile() {
+        return service.revenueByProduct(
+                DataBufferUtils.read(file, bufferFactory, CsvIngestionService.CHUNK_SIZE)).block();
+    }
+
+    private Flux<DataBuffer> input() {
+        int chunks = (template.length + CsvIngestionService.CHUNK_SIZE - 1) / CsvIngestionService.CHUNK_SIZE;
+        return Flux.range(0, repetitions)
+                .concatMap(repetition -> Flux.range(0, chunks)
+                        .map(chunk -> {
+                            int offset = chunk * CsvIngestionService.CHUNK_SIZE;
+                            int length = Math.min(CsvIngestionService.CHUNK_SIZE, template.length - offset);
+                            return bufferFactory.wrap(ByteBuffer.wrap(template, offset, length));
+                        }));
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+
+    private static final class RepeatingInputStream extends InputStream {
+        private final byte[] template;
+        private int remaining;
+        private int position;
+
+        RepeatingInputStream(byte[] template, int repetitions) {
+            this.template = template;
+            this.remaining = repetitions;
+        }
+
+        @Override
+        public int read() {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining == 0) {
+                return -1;
+            }
+            int count = Math.min(len, template.length - position);
+            System.arraycopy(template, position, b, off, count);
+            position += count;
+            if (position == template.length) {
+                position = 0;
+                remaining--;
+            }
+            return count;
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.brian.springstarter.examples;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// 替代 VirtualThreadPerformanceDemo 中基于 Instant.now() / System.gc() 的粗略计时
+// 每次调用 = 提交 taskCount 个 workload 任务并等待全部完成：
+//   Throughput  -> 批次/秒（乘以 taskCount 即任务/秒）
+//   SampleTime  -> 单批次耗时分布（p50/p99）
+//   gc profiler -> gc.alloc.rate / gc.alloc.rate.norm（build.gradle 中统一开启）
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExecutorBenchmark {
+
+    @Param({"1000", "10000"})
+    int taskCount;
+
+    @Param({"10", "100"})
+    int ioDelayMs;
+
+    @Param({"SLEEP", "SOCKET_READ", "FILE_CHANNEL_READ", "SYNCHRONIZED_PINNING", "REENTRANT_LOCK", "MIXED_CPU_IO"})
+    IoWorkload workload;
+
+    // SYNCHRONIZED_PINNING / REENTRANT_LOCK 的锁分段数，越小竞争越激烈
+    @Param({"1024"})
+    int lockStripes;
+
+    // MIXED_CPU_IO 每个任务的 CPU 计算量
+    @Param({"1000000"})
+    int cpuIterations;
+
+    private IoWorkload.Environment env;
+
+    private ExecutorService cachedPool;
+    private ExecutorService virtualExecutor;
+
+    // 执行器和负载环境在整个 trial 内复用，测量的是调度本身而不是线程池/echo 服务器的创建销毁
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        env = workload.open(ioDelayMs, lockStripes, cpuIterations);
+        cachedPool = Executors.newCachedThreadPool();
+        virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException, IOException {
+        shutdown(cachedPool);
+        shutdown(virtualExecutor);
+        env.close();
+    }
+
+    // poolSize 放在单独的 State 中：只有用到它的固定线程池方案按 poolSize 展开，另外两种方案不会重复运行
+    @State(Scope.Benchmark)
+    public static class FixedPool {
+
+        @Param({"50", "200"})
+        int poolSize;
+
+        private ExecutorService executor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            executor = Executors.newFixedThreadPool(poolSize);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws InterruptedException {
+            shutdown(executor);
+        }
+    }
+
+    @Benchmark
+    public int traditionalThreadPool(FixedPool pool) {
+        return completed(VirtualThreadPerformanceDemo.runTasks(pool.executor, taskCount, env));
+    }
+
+    @Benchmark
+    public int cachedThreadPool() {
+        return completed(VirtualThreadPerformanceDemo.runTasks(cachedPool, taskCount, env));
+    }
+
+    @Benchmark
+    public int virtualThreads() {
+        return completed(VirtualThreadPerformanceDemo.runTasks(virtualExecutor, taskCount, env));
+    }
+
+    // 有任务失败时结果不可信（失败的任务往往比成功的快），直接让本次基准失败
+    private static int completed(VirtualThreadPerformanceDemo.Tally tally) {
+        if (tally.failed() > 0) {
+            throw new IllegalStateException(tally.failed() + " 个任务失败，成功 " + tally.completed() + " 个");
+        }
+        return tally.completed();
+    }
+
+    private static void shutdown(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
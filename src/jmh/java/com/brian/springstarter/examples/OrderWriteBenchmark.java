@@ -0,0 +1,102 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Order;
+import com.brian.springstarter.examples.SpringBoot4Features.OrderItem;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 订单写入吞吐（行/秒）：每次调用写入 ORDERS 个订单（每单 1 行 orders + ITEMS 行 order_items）
+// batchSize 为每个事务包含的订单数（即合并写入的批大小），mode 为批内的语句形式：
+//   SINGLE_ROW - 每行一次 executeUpdate（batchSize=1 时就是不做合并的逐行写入基线）
+//   JDBC_BATCH - addBatch/executeBatch（MySQL 加 rewriteBatchedStatements=true 时由驱动改写为多行 INSERT）
+//   MULTI_ROW  - 显式拼接 INSERT ... VALUES (...), (...)，每条语句最多 OrderWriter.MAX_ROWS_PER_STATEMENT 行
+// 使用 H2 内存库（MySQL 模式）：没有网络往返，逐行写入的真实代价（每行一次 RTT）在 MySQL 上会大得多
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderWriteBenchmark {
+
+    private static final int ORDERS = 1_000;
+    private static final int ITEMS = 3;
+
+    @Param({"SINGLE_ROW", "JDBC_BATCH", "MULTI_ROW"})
+    OrderWriter.WriteMode mode;
+
+    @Param({"1", "100", "1000"})
+    int batchSize;
+
+    private HikariDataSource dataSource;
+    private OrderWriter writer;
+    private List<List<Order>> batches;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:order-write-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(1);
+        dataSource = new HikariDataSource(config);
+        execute("RUNSCRIPT FROM 'classpath:/schema.sql'");
+        // order_items.product_id 引用商品表，先导入商品目录
+        execute("RUNSCRIPT FROM 'classpath:/data.sql'");
+        writer = new OrderWriter(dataSource);
+    }
+
+    // 每次调用前清空表并重新分配订单 id，表的大小不随测试时长增长
+    @Setup(Level.Invocation)
+    public void prepareOrders() throws SQLException {
+        execute("TRUNCATE TABLE order_items");
+        execute("TRUNCATE TABLE orders");
+        batches = new ArrayList<>();
+        List<Order> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderItem> items = new ArrayList<>(ITEMS);
+            for (int item = 1; item <= ITEMS; item++) {
+                items.add(new OrderItem((long) (i * ITEMS + item) % 1_000 + 1, item, 10.0 * item));
+            }
+            batch.add(new Order(writer.nextOrderId(), (long) i % 100 + 1, items, 60.0));
+            if (batch.size() == batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS * (1 + ITEMS))
+    public int write() throws SQLException {
+        for (List<Order> batch : batches) {
+            writer.write(batch, mode);
+        }
+        return batches.size();
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.OrderItem;
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// R2DBC 与 JDBC + 虚拟线程 访问同一个 H2（MySQL 模式）内存库的对比，SQL 与仓储类完全相同
+// 每次调用并发发出 concurrency 个查询并等待全部完成，两种方式的连接池大小相同（poolSize）
+//   FIND_BY_ID  - 按主键查商品
+//   SEARCH      - 名称 LIKE + 价格区间
+//   USER_ORDERS - 查用户订单 id，再逐个查订单明细
+// 注意：H2 的 R2DBC 驱动在调用线程上同步执行 SQL，这里比较的主要是两种编程模型与连接池的开销；
+// 真正的网络 I/O（MySQL）下 R2DBC 不占线程等待，结论可能不同
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PersistenceBenchmark {
+
+    public enum Api { R2DBC, JDBC_VIRTUAL_THREADS }
+
+    public enum Query { FIND_BY_ID, SEARCH, USER_ORDERS }
+
+    private static final String JDBC_URL = "jdbc:h2:mem:persistence-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String R2DBC_URL = "r2dbc:h2:mem:///persistence-benchmark?options=MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Param({"R2DBC", "JDBC_VIRTUAL_THREADS"})
+    Api api;
+
+    @Param({"FIND_BY_ID", "SEARCH", "USER_ORDERS"})
+    Query query;
+
+    @Param({"64"})
+    int concurrency;
+
+    @Param({"10"})
+    int poolSize;
+
+    private JdbcConnectionPool jdbcPool;
+    private ConnectionPool r2dbcPool;
+    private ProductRepository products;
+    private OrderRepository orders;
+    private ExecutorService virtualThreads;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        jdbcPool = JdbcConnectionPool.create(JDBC_URL, "sa", "");
+        jdbcPool.setMaxConnections(poolSize);
+        try (Connection connection = jdbcPool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:/schema.sql'");
+            statement.execute("RUNSCRIPT FROM 'classpath:/data.sql'");
+        }
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(R2DBC_URL).mutate()
+                .option(ConnectionFactoryOptions.USER, "sa")
+                .option(ConnectionFactoryOptions.PASSWORD, "")
+                .build();
+        r2dbcPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(poolSize)
+                .build());
+        DatabaseClient db = DatabaseClient.create(r2dbcPool);
+        products = new ProductRepository(db);
+        orders = new OrderRepository(db);
+        virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        virtualThreads.close();
+        r2dbcPool.dispose();
+        jdbcPool.dispose();
+    }
+
+    // 返回本批次读到的行数，防止被优化掉
+    @Benchmark
+    public long batch() throws Exception {
+        return switch (api) {
+            case R2DBC -> Flux.range(0, concurrency)
+                    .flatMap(i -> r2dbc(), concurrency)
+                    .reduce(0L, Long::sum)
+                    .block();
+            case JDBC_VIRTUAL_THREADS -> {
+                List<Future<Long>> futures = new ArrayList<>(concurrency);
+                for (int i = 0; i < concurrency; i++) {
+                    futures.add(virtualThreads.submit(this::jdbc));
+                }
+                long rows = 0;
+                for (Future<Long> future : futures) {
+                    rows += future.get();
+                }
+                yield rows;
+            }
+        };
+    }
+
+    private Mono<Long> r2dbc() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (query) {
+            case FIND_BY_ID -> products.findById(random.nextLong(1, 1_001)).map(product -> 1L);
+            case SEARCH -> products.search("product-" + random.nextInt(10, 100), 100, 800).count();
+            case USER_ORDERS -> orders.findOrderIds(random.nextLong(1, 101))
+                    .flatMapMany(Flux::fromIterable)
+                    .concatMap(orders::findItems)
+                    .map(items -> (long) items.size())
+                    .reduce(0L, Long::sum);
+        };
+    }
+
+    private long jdbc() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (Connection connection = jdbcPool.getConnection()) {
+            return switch (query) {
+                case FIND_BY_ID -> {
+                    try (PreparedStatement statement = prepare(connection, ProductRepository.FIND_BY_ID,
+                            random.nextLong(1, 1_001)); ResultSet rows = statement.executeQuery()) {
+                        yield rows.next() && product(rows) != null ? 1 : 0;
+                    }
+                }
+                case SEARCH -> {
+                    try (PreparedStatement statement = prepare(connection, ProductRepository.SEARCH,
+                            ProductRepository.containsPattern("product-" + random.nextInt(10, 100)), 100.0, 800.0);
+                         ResultSet rows = statement.executeQuery()) {
+                        long count = 0;
+                        while (rows.next()) {
+                            product(rows);
+                            count++;
+                        }
+                        yield count;
+                    }
+                }
+                case USER_ORDERS -> {
+                    List<Long> orderIds = new ArrayList<>();
+                    try (PreparedStatement statement = prepare(connection, OrderRepository.FIND_ORDER_IDS,
+                            random.nextLong(1, 101)); ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            orderIds.add(rows.getLong("id"));
+                        }
+                    }
+                    long count = 0;
+                    for (long orderId : orderIds) {
+                        try (PreparedStatement statement = prepare(connection, OrderRepository.FIND_ITEMS, orderId);
+                             ResultSet rows = statement.executeQuery()) {
+                            List<OrderItem> items = new ArrayList<>();
+                            while (rows.next()) {
+                                items.add(new OrderItem(rows.getLong("product_id"), rows.getInt("quantity"), 0.0));
+                            }
+                            count += items.size();
+                        }
+                    }
+                    yield count;
+                }
+            };
+        }
+    }
+
+    // 仓储类中的 SQL 使用命名参数（:name），按出现顺序替换为 JDBC 的 ?
+    private static PreparedStatement prepare(Connection connection, String sql, Object... args) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql.replaceAll(":[A-Za-z]+", "?"));
+        for (int i = 0; i < args.length; i++) {
+            statement.setObject(i + 1, args[i]);
+        }
+        return statement;
+    }
+
+    private static Product product(ResultSet row) throws SQLException {
+        return new Product(row.getLong("id"), row.getString("name"), row.getDouble("price"), row.getString("category"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 价格区间筛选：rows 行（默认 1000 万），返回命中行数
+//   REACTOR - 原 searchProducts 的写法：Flux<Product> 上 filter 价格区间再计数
+//   SCALAR  - ScalarPriceRangeFilter，在 double[] 价格列上逐行比较生成选择位图
+//   VECTOR  - VectorPriceRangeFilter（jdk.incubator.vector），一次比较一整个向量（AVX2 4 路 / AVX-512 8 路）
+// 三种方式的数据相同；REACTOR 需要 1000 万个 Product 对象，所以给 fork 出的 JVM 更大的堆
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class PriceFilterBenchmark {
+
+    public enum Path { REACTOR, SCALAR, VECTOR }
+
+    @Param({"10000000"})
+    int rows;
+
+    @Param({"REACTOR", "SCALAR", "VECTOR"})
+    Path path;
+
+    // 命中约 10% 与约 90% 的行
+    @Param({"100:200", "50:950"})
+    String range;
+
+    private double minPrice;
+    private double maxPrice;
+    private List<Product> products;
+    private double[] prices;
+    private PriceRangeFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] bounds = range.split(":");
+        minPrice = Double.parseDouble(bounds[0]);
+        maxPrice = Double.parseDouble(bounds[1]);
+        Random random = new Random(42);
+        prices = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            prices[row] = random.nextInt(100_000) / 100.0;
+        }
+        switch (path) {
+            case REACTOR -> {
+                products = new ArrayList<>(rows);
+                for (int row = 0; row < rows; row++) {
+                    products.add(new Product((long) row, "Product", prices[row], "Home"));
+                }
+            }
+            case SCALAR -> filter = new ScalarPriceRangeFilter();
+            case VECTOR -> filter = new VectorPriceRangeFilter();
+        }
+    }
+
+    @Benchmark
+    public long matches() {
+        if (path == Path.REACTOR) {
+            return Flux.fromIterable(products)
+                    .filter(p -> p.price() >= minPrice && p.price() <= maxPrice)
+                    .count()
+                    .block();
+        }
+        long count = 0;
+        for (long word : filter.select(prices, rows, minPrice, maxPrice)) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,100 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 列式商品存储（ProductColumns）与 List<Product> 的对比，catalogSize 个商品（默认 100 万）
+//   search    - 价格区间 + 名称子串（name 取所有商品都包含的 "product"，主要比较价格列上的筛选）
+//   analytics - 原 getProductAnalytics 的计算：商品数、总价值、去重后的分类
+// 启动时打印两种表示的堆占用（每百万商品）。分类字符串按从数据库读出的方式每行一个新实例，
+// 所以 List<Product> 每行要多付一个 Long 和一个分类 String，列式存储只保留字典里的一份
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProductColumnsBenchmark {
+
+    public enum Layout { OBJECTS, COLUMNS }
+
+    private static final String[] CATEGORIES = {"Electronics", "Home", "Sports", "Books"};
+
+    @Param({"1000000"})
+    int catalogSize;
+
+    @Param({"OBJECTS", "COLUMNS"})
+    Layout layout;
+
+    private List<Product> products;
+    private ProductColumns columns;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeap();
+        products = generate();
+        long objectBytes = usedHeap() - before;
+        columns = ProductColumns.of(products);
+        products = null;
+        long columnBytes = usedHeap() - before;
+        products = generate();
+        System.out.printf("%n%,d products: List<Product> %,d MB, ProductColumns %,d MB (per million: %,d MB vs %,d MB)%n",
+                catalogSize, objectBytes >> 20, columnBytes >> 20,
+                (objectBytes >> 20) * 1_000_000 / catalogSize, (columnBytes >> 20) * 1_000_000 / catalogSize);
+    }
+
+    // 返回结果，防止被优化掉
+    @Benchmark
+    public List<Product> search() {
+        return switch (layout) {
+            case OBJECTS -> products.stream()
+                    .filter(p -> p.name().toLowerCase().contains("product"))
+                    .filter(p -> p.price() >= 100 && p.price() <= 200)
+                    .toList();
+            case COLUMNS -> columns.search("product", 100, 200);
+        };
+    }
+
+    @Benchmark
+    public Map<String, Object> analytics() {
+        return switch (layout) {
+            case OBJECTS -> Map.of(
+                    "totalProducts", products.size(),
+                    "totalValue", products.stream().mapToDouble(Product::price).sum(),
+                    "categories", products.stream().map(Product::category).distinct().toList());
+            case COLUMNS -> Map.of(
+                    "totalProducts", columns.size(),
+                    "totalValue", columns.totalValue(),
+                    "categories", columns.categories());
+        };
+    }
+
+    private List<Product> generate() {
+        Random random = new Random(42);
+        List<Product> generated = new ArrayList<>(catalogSize);
+        for (long id = 1; id <= catalogSize; id++) {
+            String category = new String(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            generated.add(new Product(id, "Product-" + id, 10.0 + random.nextInt(99_000) / 100.0, category));
+        }
+        return generated;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
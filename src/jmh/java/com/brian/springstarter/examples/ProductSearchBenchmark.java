@@ -0,0 +1,97 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 商品搜索延迟：catalogSize 个商品（默认 100 万）上对比原来的线性扫描与 ProductSearchIndex
+//   SCAN  - 原实现：逐个商品 name().toLowerCase().contains(query.toLowerCase()) 再判断价格区间
+//   INDEX - 三元组倒排索引 + 按价格排序的数组，取较小的候选集再逐个校验
+// query 覆盖选择性不同的情况：罕见词、常见词、短于 3 个字符（只能靠价格区间）以及名称中的数字片段
+// 启动时打印两种方式的常驻堆内存（商品对象本身两者共用，索引多出小写名称、价格数组与倒排表）
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSearchBenchmark {
+
+    public enum Strategy { SCAN, INDEX }
+
+    private static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Stark", "Wayne", "Hooli", "Vandelay"};
+    private static final String[] ADJECTIVES = {"Wireless", "Portable", "Smart", "Compact", "Ergonomic", "Deluxe",
+            "Classic", "Ultra", "Mini", "Pro"};
+    private static final String[] NOUNS = {"Mouse", "Keyboard", "Laptop", "Headphones", "Speaker", "Monitor", "Lamp",
+            "Coffee Maker", "Running Shoes", "Backpack", "Camera", "Blender", "Tablet", "Charger", "Desk Chair"};
+    private static final String[] CATEGORIES = {"Electronics", "Home", "Sports", "Books"};
+
+    @Param({"1000000"})
+    int catalogSize;
+
+    @Param({"SCAN", "INDEX"})
+    Strategy strategy;
+
+    @Param({"ergonomic desk", "mouse", "pr", "12345"})
+    String query;
+
+    @Param({"100"})
+    double minPrice;
+
+    @Param({"800"})
+    double maxPrice;
+
+    private List<Product> catalog;
+    private ProductSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeap();
+        catalog = new ArrayList<>(catalogSize);
+        Random random = new Random(42);
+        for (long id = 1; id <= catalogSize; id++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)]
+                    + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + id;
+            catalog.add(new Product(id, name, 10.0 + random.nextInt(99_000) / 100.0,
+                    CATEGORIES[random.nextInt(CATEGORIES.length)]));
+        }
+        long catalogBytes = usedHeap() - before;
+        index = ProductSearchIndex.build(catalog);
+        long indexBytes = usedHeap() - before - catalogBytes;
+        System.out.printf("%n%,d products: catalog %,d MB (all SCAN needs), index adds %,d MB%n",
+                catalogSize, catalogBytes >> 20, indexBytes >> 20);
+    }
+
+    // 返回结果，防止被优化掉
+    @Benchmark
+    public List<Product> search() {
+        return switch (strategy) {
+            case SCAN -> scan(query, minPrice, maxPrice);
+            case INDEX -> index.search(query, minPrice, maxPrice);
+        };
+    }
+
+    private List<Product> scan(String query, double minPrice, double maxPrice) {
+        return catalog.stream()
+                .filter(p -> p.name().toLowerCase().contains(query.toLowerCase()))
+                .filter(p -> p.price() >= minPrice && p.price() <= maxPrice)
+                .toList();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,77 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// /products/stream 每个 tick 的CPU与分配开销随订阅者数量的变化
+// PER_SUBSCRIBER：原实现，每个订阅者一个 Flux.interval，每 tick N 个定时任务、N 个 Product
+// SHARED：BroadcastStream，每 tick 一个定时任务、一个 Product，再分发给 N 个订阅者的缓冲区
+// 使用 VirtualTimeScheduler 推进时间，一次调用 = 一个 tick；gc.alloc.rate.norm 即每 tick 分配字节数
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductStreamBenchmark {
+
+    public enum Model { SHARED, PER_SUBSCRIBER }
+
+    @Param({"1", "100", "1000", "10000"})
+    int subscribers;
+
+    @Param({"SHARED", "PER_SUBSCRIBER"})
+    Model model;
+
+    private VirtualTimeScheduler scheduler;
+    private BroadcastStream<Product> broadcast;
+    private final List<Disposable> subscriptions = new ArrayList<>();
+    private long received;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+        Flux<Product> ticks = Flux.interval(Duration.ofSeconds(1), scheduler)
+                .map(i -> new Product(i, "Product-" + i, 100.0 + i, "Electronics"));
+        Flux<Product> perSubscriber = switch (model) {
+            case SHARED -> {
+                broadcast = new BroadcastStream<>(ticks, false, 256,
+                        BroadcastStream.SlowConsumerPolicy.DROP_OLDEST, () -> { });
+                yield broadcast.subscribe();
+            }
+            case PER_SUBSCRIBER -> ticks;
+        };
+        for (int i = 0; i < subscribers; i++) {
+            subscriptions.add(perSubscriber.subscribe(product -> received++));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+        if (broadcast != null) {
+            broadcast.dispose();
+        }
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public long tick() {
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        return received;
+    }
+}
@@ -0,0 +1,93 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// SSE 扇出时每个 tick 的序列化开销：每个连接各自编码 vs 编码一次、所有连接共享同一份字节
+// PER_SUBSCRIBER：注解端点的行为，每个订阅者把同一个 Product 编码成 "data:<json>\n\n" 帧
+// SHARED_FRAME：SseFrameEncoder，每 tick 编码一次，订阅者只拿到包装同一字节数组的缓冲区
+// 两种模式都经过 BroadcastStream，订阅者收到缓冲区后立即释放（模拟写出 socket）
+// gc.alloc.rate.norm 即每 tick 的堆分配字节数；PER_SUBSCRIBER 每个订阅者各得一份帧，SHARED_FRAME 每 tick 只有一份
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SseFanOutBenchmark {
+
+    public enum Model { PER_SUBSCRIBER, SHARED_FRAME }
+
+    @Param({"100", "1000", "10000"})
+    int subscribers;
+
+    @Param({"PER_SUBSCRIBER", "SHARED_FRAME"})
+    Model model;
+
+    private VirtualTimeScheduler scheduler;
+    private final List<Disposable> resources = new ArrayList<>();
+    private long received;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+        SseFrameEncoder encoder = new SseFrameEncoder(ServerCodecConfigurer.create());
+        Flux<Product> ticks = Flux.interval(Duration.ofSeconds(1), scheduler)
+                .map(i -> new Product(i, "Product-" + i, 100.0 + i, "Electronics"));
+        BroadcastStream<Product> products = broadcast(ticks);
+        resources.add(products);
+        switch (model) {
+            case PER_SUBSCRIBER -> {
+                for (int i = 0; i < subscribers; i++) {
+                    resources.add(products.subscribe().subscribe(product -> write(encoder.encode(product))));
+                }
+            }
+            case SHARED_FRAME -> {
+                BroadcastStream<byte[]> frames = broadcast(encoder.encode(products.subscribe()));
+                resources.add(frames);
+                for (int i = 0; i < subscribers; i++) {
+                    resources.add(encoder.subscribe(frames).subscribe(buffer -> {
+                        received += buffer.readableByteCount();
+                        DataBufferUtils.release(buffer);
+                    }));
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        resources.reversed().forEach(Disposable::dispose);
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public long tick() {
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        return received;
+    }
+
+    private void write(byte[] frame) {
+        received += frame.length;
+    }
+
+    private static <T> BroadcastStream<T> broadcast(Flux<T> source) {
+        return new BroadcastStream<>(source, false, 256, BroadcastStream.SlowConsumerPolicy.DROP_OLDEST, () -> { });
+    }
+}
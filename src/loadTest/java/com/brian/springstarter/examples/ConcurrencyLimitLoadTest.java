@@ -0,0 +1,203 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.SpringStarterApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+// 过载下的自适应并发限制（ConcurrencyLimitFilter）：
+// 以 netty 模式启动应用（随机端口），ProductClient 指向进程内一个容量固定的上游桩服务
+// （workers 个工作线程，每个请求占用 service-ms 毫秒，超出的请求在无界队列里排队，容量 = workers × 1000 / service-ms 请求/秒）。
+// 对 /api/v4/products/{id}/details 以开环方式（固定到达速率，不等响应）发送 overload × 容量 的请求，
+// 分别在限流关闭和开启时运行，逐秒报告成功请求的 p99 与 503 数量：
+//   关闭 - 上游队列随时间线性增长，p99 跟着一路上涨
+//   开启 - 超出的请求立即得到 503，p99 稳定在接近无排队时的水平
+// 应用的熔断、重试与舱壁在这里被放宽，只让限流器起作用。
+//
+// 运行：./gradlew concurrencyLimitLoadTest --args="--overload=2 --seconds=30"
+// 参数：
+//   --workers=N      上游工作线程数（默认 16）
+//   --service-ms=N   上游每个请求的处理时间（默认 10）
+//   --overload=X     到达速率相对上游容量的倍数（默认 2）
+//   --warmup-seconds=N  正式计量前以容量一半的速率预热（默认 5）
+//   --seconds=N      计量时长（默认 20）
+//   --modes=M[,M]    off,on（默认两者都跑）
+public final class ConcurrencyLimitLoadTest {
+
+    // 超过这个时间仍未响应的请求记为超时
+    private static final Duration CLIENT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Options options;
+
+    private ConcurrencyLimitLoadTest(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) {
+        Options options = Options.parse(List.of(args));
+        ConcurrencyLimitLoadTest test = new ConcurrencyLimitLoadTest(options);
+        int capacity = options.workers * 1000 / options.serviceMs;
+        System.out.printf("=== 🏁 自适应并发限制：上游容量 %,d 请求/秒，到达速率 %,.0f 请求/秒 ===%n",
+                capacity, capacity * options.overload);
+        List<String> summary = new ArrayList<>();
+        for (String mode : options.modes) {
+            summary.add(test.run(mode, capacity));
+        }
+        System.out.println("\n=== 📊 汇总 ===");
+        System.out.printf("%-5s %10s %10s %10s %10s %10s%n", "limit", "成功/秒", "503/秒", "超时", "p50 ms", "p99 ms");
+        summary.forEach(System.out::println);
+    }
+
+    private String run(String mode, int capacity) {
+        System.out.printf("%n--- 限流 %s ---%n", mode);
+        ExecutorService workers = Executors.newFixedThreadPool(options.workers);
+        Scheduler upstreamScheduler = Schedulers.fromExecutorService(workers);
+        DisposableServer upstream = HttpServer.create()
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .route(routes -> routes.get("/external-api/products/{id}", (request, response) -> {
+                    long id = Long.parseLong(request.param("id"));
+                    Mono<String> body = Mono.fromCallable(() -> {
+                        Thread.sleep(options.serviceMs);
+                        return "{\"id\":" + id + ",\"name\":\"Upstream " + id + "\",\"price\":1.0,\"category\":\"Remote\"}";
+                    }).subscribeOn(upstreamScheduler);
+                    return response.header("Content-Type", "application/json").sendString(body);
+                }))
+                .bindNow();
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(SpringStarterApplication.class)
+                .profiles("netty")
+                .properties(
+                        "server.port=0",
+                        "starter.concurrency-limit.enabled=" + mode.equals("on"),
+                        "starter.product-client.base-url=http://127.0.0.1:" + upstream.port(),
+                        "starter.product-client.protocol=h2c",
+                        "starter.product-client.max-connections=4",
+                        "starter.product-client.max-concurrent-streams=100000",
+                        "starter.product-client.pending-acquire-timeout=1m",
+                        "starter.product-client.response-timeout=1m",
+                        "starter.product-client.retry.max-attempts=0",
+                        "starter.product-client.circuit-breaker.failure-rate-threshold=1.0",
+                        "starter.product-client.circuit-breaker.slow-call-rate-threshold=1.0",
+                        "starter.product-client.circuit-breaker.slow-call-duration=1h",
+                        "starter.guards.resources.product-client.max-concurrent=1000000")
+                .run()) {
+            String baseUrl = "http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port");
+            ConnectionProvider pool = ConnectionProvider.builder("concurrency-limit-load-test")
+                    .maxConnections(20_000)
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            try {
+                HttpClient client = HttpClient.create(pool).baseUrl(baseUrl);
+                drive(client, capacity / 2.0, options.warmupSeconds, new Result());
+                // 预热期间积压的请求排空后再开始计量
+                Mono.delay(Duration.ofSeconds(2)).block();
+
+                Result result = new Result();
+                drive(client, capacity * options.overload, options.seconds, result);
+                Histogram total = new ConcurrentHistogram(3);
+                for (int second = 0; second < result.perSecond.size(); second++) {
+                    Histogram histogram = result.perSecond.get(second);
+                    total.add(histogram);
+                    System.out.printf("第 %2d 秒: 成功 %,6d, p99 %,9.2f ms%n", second + 1, histogram.getTotalCount(),
+                            histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(99) / 1e3);
+                }
+                System.out.printf("503: %,d, 超时: %,d, 其他错误: %,d%n",
+                        result.rejected.sum(), result.timeouts.sum(), result.errors.sum());
+                SseSoakTest.printPercentiles("成功请求延迟", total);
+
+                return String.format("%-5s %10.0f %10.0f %10d %10.2f %10.2f", mode,
+                        total.getTotalCount() / (double) options.seconds, result.rejected.sum() / (double) options.seconds,
+                        result.timeouts.sum(), total.getValueAtPercentile(50) / 1e3, total.getValueAtPercentile(99) / 1e3);
+            } finally {
+                pool.dispose();
+            }
+        } finally {
+            upstream.disposeNow();
+            upstreamScheduler.dispose();
+        }
+    }
+
+    // 开环：按固定间隔发出请求，不等待前一个请求完成；成功请求的延迟按发出时所在的秒记录
+    private void drive(HttpClient client, double ratePerSecond, int seconds, Result result) {
+        long intervalNanos = (long) (1e9 / ratePerSecond);
+        long requests = (long) (ratePerSecond * seconds);
+        for (int second = 0; second < seconds; second++) {
+            result.perSecond.add(new ConcurrentHistogram(3));
+        }
+        long start = System.nanoTime();
+        Flux.interval(Duration.ofNanos(intervalNanos))
+                .take(requests)
+                .onBackpressureBuffer()
+                .flatMap(i -> {
+                    long sent = System.nanoTime();
+                    Histogram bucket = result.perSecond.get((int) Math.min(seconds - 1, (sent - start) / 1_000_000_000L));
+                    return client.get()
+                            .uri("/api/v4/products/" + ThreadLocalRandom.current().nextInt(1, 1_001) + "/details")
+                            .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                            .timeout(CLIENT_TIMEOUT)
+                            .doOnNext(status -> {
+                                if (status == 200) {
+                                    bucket.recordValue((System.nanoTime() - sent) / 1_000);
+                                } else if (status == 503) {
+                                    result.rejected.increment();
+                                } else {
+                                    result.errors.increment();
+                                }
+                            })
+                            .onErrorResume(e -> {
+                                (e instanceof TimeoutException ? result.timeouts : result.errors).increment();
+                                return Mono.empty();
+                            });
+                }, Integer.MAX_VALUE)
+                .blockLast();
+    }
+
+    private static final class Result {
+        final List<Histogram> perSecond = new ArrayList<>();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private record Options(int workers, int serviceMs, double overload, int warmupSeconds, int seconds,
+                           List<String> modes) {
+
+        static Options parse(List<String> args) {
+            return new Options(
+                    Integer.parseInt(value(args, "--workers=", "16")),
+                    Integer.parseInt(value(args, "--service-ms=", "10")),
+                    Double.parseDouble(value(args, "--overload=", "2")),
+                    Integer.parseInt(value(args, "--warmup-seconds=", "5")),
+                    Integer.parseInt(value(args, "--seconds=", "20")),
+                    Arrays.stream(value(args, "--modes=", "off,on").split(",")).map(String::strip).toList());
+        }
+
+        private static String value(List<String> args, String prefix, String defaultValue) {
+            return args.stream()
+                    .filter(arg -> arg.startsWith(prefix))
+                    .map(arg -> arg.substring(prefix.length()))
+                    .findFirst()
+                    .orElse(defaultValue);
+        }
+    }
+}
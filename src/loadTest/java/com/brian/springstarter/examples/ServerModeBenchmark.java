@@ -0,0 +1,218 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.SpringStarterApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// 三种服务器模式的吞吐与延迟对比（同一套接口）：
+//   netty     - 响应式栈，Reactor Netty 事件循环
+//   tomcat-vt - Servlet 栈，每个请求一个虚拟线程
+//   tomcat    - Servlet 栈，平台线程池
+// 每种模式在独立的子 JVM 中以对应 profile 启动应用（随机端口，客户端在同一进程内），先预热再计量：
+//   getProduct     - 固定并发的闭环压测（每个并发槽位收到响应后立即发下一个请求），报告吞吐与延迟分位数
+//   streamProducts - 同时打开若干 SSE 连接，报告从发起请求到收到第一个事件的延迟分位数与事件吞吐
+// 各模式不共用 JVM：依次在同一进程里运行时，前面模式留下的 JIT 编译结果会让后面的模式明显占优。
+//
+// 运行：./gradlew serverModeBenchmark --args="--concurrency=64 --seconds=20"
+// 参数：
+//   --modes=M[,M...]        默认 netty,tomcat-vt,tomcat
+//   --concurrency=N         getProduct 并发数（默认 64）
+//   --warmup-seconds=N      每种模式的预热时长（默认 5）
+//   --seconds=N             getProduct 计量时长（默认 15）
+//   --stream-connections=N  streamProducts 连接数（默认 500）
+//   --stream-seconds=N      SSE 连接保持时长（默认 10）
+public final class ServerModeBenchmark {
+
+    private static final String SUMMARY_PREFIX = "SUMMARY ";
+
+    private final Options options;
+
+    private ServerModeBenchmark(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Options options = Options.parse(List.of(args));
+        if (options.modes.size() == 1) {
+            // 子进程：只运行一种模式，最后一行输出汇总
+            System.out.println(SUMMARY_PREFIX + new ServerModeBenchmark(options).runMode(options.modes.getFirst()));
+            return;
+        }
+        System.out.println("=== 🏁 服务器模式对比 ===");
+        List<String> summary = new ArrayList<>();
+        for (String mode : options.modes) {
+            summary.add(forkMode(mode, args));
+        }
+        System.out.println("\n=== 📊 汇总 ===");
+        System.out.printf("%-10s %12s %10s %10s %14s %14s %12s%n",
+                "mode", "getProduct/s", "p50 ms", "p99 ms", "首事件 p50 ms", "首事件 p99 ms", "事件/秒");
+        summary.forEach(System.out::println);
+    }
+
+    // 以相同的 JVM 参数和 classpath 启动子进程运行单个模式，转发其输出并取回汇总行
+    private static String forkMode(String mode, String[] args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), ServerModeBenchmark.class.getName()));
+        Arrays.stream(args).filter(arg -> !arg.startsWith("--modes=")).forEach(command::add);
+        command.add("--modes=" + mode);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String summary = String.format("%-10s (failed)", mode);
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.startsWith(SUMMARY_PREFIX)) {
+                    summary = line.substring(SUMMARY_PREFIX.length());
+                } else {
+                    System.out.println(line);
+                }
+            }
+        }
+        process.waitFor();
+        return summary;
+    }
+
+    private String runMode(String mode) {
+        System.out.printf("%n--- %s ---%n", mode);
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(SpringStarterApplication.class)
+                .profiles(mode)
+                .properties("server.port=0")
+                .run()) {
+            String baseUrl = "http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port");
+            ConnectionProvider pool = ConnectionProvider.builder("server-mode-benchmark")
+                    .maxConnections(options.concurrency)
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            try {
+                HttpClient client = HttpClient.create(pool).baseUrl(baseUrl);
+
+                getProduct(client, options.warmupSeconds, new ConcurrentHistogram(3));
+                Histogram latency = new ConcurrentHistogram(3);
+                long[] counts = getProduct(client, options.seconds, latency);
+                double throughput = counts[0] / (double) options.seconds;
+                System.out.printf("getProduct: %,.0f 请求/秒, 错误 %,d%n", throughput, counts[1]);
+                SseSoakTest.printPercentiles("getProduct 延迟", latency);
+
+                // SSE 每个连接独占一个 TCP 连接，不走上面的连接池
+                HttpClient streamClient = HttpClient.create(ConnectionProvider.newConnection()).baseUrl(baseUrl);
+                Histogram firstEvent = new ConcurrentHistogram(3);
+                long events = streamProducts(streamClient, firstEvent);
+                double eventRate = events / (double) options.streamSeconds;
+                System.out.printf("streamProducts: %,d 个连接, %,.0f 事件/秒%n", options.streamConnections, eventRate);
+                SseSoakTest.printPercentiles("首事件延迟", firstEvent);
+
+                return String.format("%-10s %12.0f %10.2f %10.2f %14.2f %14.2f %12.0f", mode, throughput,
+                        latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(99) / 1e3,
+                        firstEvent.getValueAtPercentile(50) / 1e3, firstEvent.getValueAtPercentile(99) / 1e3,
+                        eventRate);
+            } finally {
+                pool.dispose();
+            }
+        }
+    }
+
+    // 返回 {成功数, 错误数}；商品 id 在 1..1000 内随机，预热阶段即填满商品缓存
+    private long[] getProduct(HttpClient client, int seconds, Histogram micros) {
+        long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        LongAdder ok = new LongAdder();
+        LongAdder errors = new LongAdder();
+        Flux.range(0, options.concurrency)
+                .flatMap(slot -> Mono.defer(() -> {
+                            long started = System.nanoTime();
+                            return client.get()
+                                    .uri("/api/v4/products/" + ThreadLocalRandom.current().nextInt(1, 1_001))
+                                    .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                                    .doOnNext(status -> {
+                                        if (status == 200) {
+                                            micros.recordValue((System.nanoTime() - started) / 1_000);
+                                            ok.increment();
+                                        } else {
+                                            errors.increment();
+                                        }
+                                    })
+                                    .onErrorResume(e -> {
+                                        errors.increment();
+                                        return Mono.empty();
+                                    });
+                        })
+                        .repeat(() -> System.nanoTime() < end), options.concurrency)
+                .blockLast();
+        return new long[] {ok.sum(), errors.sum()};
+    }
+
+    private long streamProducts(HttpClient client, Histogram firstEventMicros) {
+        LongAdder events = new LongAdder();
+        Flux.range(0, options.streamConnections)
+                .flatMap(i -> Flux.defer(() -> {
+                    long started = System.nanoTime();
+                    boolean[] first = {true};
+                    return client.get()
+                            .uri("/api/v4/products/stream")
+                            .responseContent()
+                            .asString(StandardCharsets.UTF_8)
+                            .doOnNext(chunk -> {
+                                int count = occurrences(chunk, "data:");
+                                if (count > 0 && first[0]) {
+                                    first[0] = false;
+                                    firstEventMicros.recordValue((System.nanoTime() - started) / 1_000);
+                                }
+                                events.add(count);
+                            })
+                            .take(Duration.ofSeconds(options.streamSeconds))
+                            .onErrorResume(e -> Flux.empty());
+                }), options.streamConnections)
+                .blockLast();
+        return events.sum();
+    }
+
+    private static int occurrences(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + token.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private record Options(List<String> modes, int concurrency, int warmupSeconds, int seconds,
+                           int streamConnections, int streamSeconds) {
+
+        static Options parse(List<String> args) {
+            return new Options(
+                    Arrays.stream(value(args, "--modes=", "netty,tomcat-vt,tomcat").split(","))
+                            .map(String::strip).toList(),
+                    Integer.parseInt(value(args, "--concurrency=", "64")),
+                    Integer.parseInt(value(args, "--warmup-seconds=", "5")),
+                    Integer.parseInt(value(args, "--seconds=", "15")),
+                    Integer.parseInt(value(args, "--stream-connections=", "500")),
+                    Integer.parseInt(value(args, "--stream-seconds=", "10")));
+        }
+
+        private static String value(List<String> args, String prefix, String defaultValue) {
+            return args.stream()
+                    .filter(arg -> arg.startsWith(prefix))
+                    .map(arg -> arg.substring(prefix.length()))
+                    .findFirst()
+                    .orElse(defaultValue);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.SpringStarterApplication;
+import com.sun.management.UnixOperatingSystemMXBean;
+import io.netty.channel.ChannelOption;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// SSE 连接规模压测：打开 N 个并发 SSE 连接，保持一段时间后输出
+//   - 建连速率与建连耗时分位数
+//   - 每连接堆内存（客户端本地 GC 后测量；服务端通过 actuator 读取）
+//   - 事件投递延迟分位数：通知事件按服务端时间戳计算端到端延迟；
+//     所有事件按同一事件在各连接间的到达时间差计算投递偏差（相对最早收到的连接）
+//   - 文件描述符占用（客户端 UnixOperatingSystemMXBean，服务端 process.files.open）
+//
+// 运行：./gradlew soakTest --args="--connections=10000 --hold-seconds=60"
+// 参数：
+//   --connections=N          连接总数（默认 10000），按轮询分配到各目标地址和各路径
+//   --targets=URL[,URL...]   目标服务（默认 http://127.0.0.1:8080）
+//   --paths=P[,P...]         SSE 路径（默认 /api/v4/notifications,/api/v4/products/stream）
+//   --connect-concurrency=N  同时处于建连中的连接数上限（默认 1000）
+//   --hold-seconds=N         全部建连后保持的时间（默认 30）
+//   --embedded               在同一 JVM 内以 netty 模式启动应用（随机端口），此时堆内存包含客户端与服务端
+//
+// 单个客户端地址到单个服务端 ip:port 最多约 28k 个临时端口。10 万连接时把连接分散到多个目标地址，
+// 例如在 Linux 上 127.0.0.0/8 都指向本机：--targets=http://127.0.0.1:8080,http://127.0.0.2:8080,...
+// 同时需要调高两端的 ulimit -n。
+public final class SseSoakTest {
+
+    private static final Pattern NOTIFICATION = Pattern.compile("^Notification (\\d+) at (\\S+)$");
+    private static final Pattern PRODUCT_ID = Pattern.compile("^\\{\"id\":(\\d+),");
+
+    private final Options options;
+    private final HttpClient client;
+    private final LoopResources loops;
+    private final Queue<Disposable> connections = new ConcurrentLinkedQueue<>();
+    private final LongAdder established = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder events = new LongAdder();
+    private final Histogram connectMicros = new ConcurrentHistogram(3);
+    private final Histogram notificationLagMicros = new ConcurrentHistogram(3);
+    private final Histogram deliverySkewMicros = new ConcurrentHistogram(3);
+    // 路径 + 事件 id -> 第一次收到该事件的时间
+    private final Map<String, Long> firstDelivery = new ConcurrentHashMap<>();
+    // 延迟只在全部建连之后统计：建连阶段新连接会立即收到 replay 的旧事件，且建连本身占用 CPU
+    private volatile boolean steady;
+
+    private SseSoakTest(Options options) {
+        this.options = options;
+        this.loops = LoopResources.create("soak", Math.max(2, Runtime.getRuntime().availableProcessors()), true);
+        // 每个请求一个独立连接，不做连接池复用
+        this.client = HttpClient.create(ConnectionProvider.newConnection())
+                .runOn(loops)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 30_000);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(List.of(args));
+        ConfigurableApplicationContext app = null;
+        if (options.embedded) {
+            app = new SpringApplicationBuilder(SpringStarterApplication.class)
+                    .profiles("netty")
+                    .properties("server.port=0")
+                    .run();
+            String port = app.getEnvironment().getProperty("local.server.port");
+            options = options.withTargets(List.of("http://127.0.0.1:" + port));
+        }
+        try {
+            new SseSoakTest(options).run();
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private void run() throws InterruptedException {
+        System.out.println("=== 🔌 SSE 连接规模压测 ===");
+        System.out.printf("连接数: %,d, 目标: %s, 路径: %s%n", options.connections, options.targets, options.paths);
+        checkFileDescriptorLimit();
+
+        long clientHeapBefore = usedHeapAfterGc();
+        Map<String, Double> serverBefore = serverMetrics();
+
+        long start = System.nanoTime();
+        Flux.range(0, options.connections)
+                .flatMap(this::open, options.connectConcurrency)
+                .blockLast();
+        double setupSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("建连完成: 成功 %,d, 失败 %,d, 用时 %.2f s, 建连速率 %,.0f 连接/秒%n",
+                established.sum(), failed.sum(), setupSeconds, established.sum() / setupSeconds);
+        printPercentiles("建连耗时", connectMicros);
+
+        steady = true;
+        System.out.printf("%n保持 %d 秒...%n", options.holdSeconds);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.holdSeconds));
+
+        long open = established.sum() - closed.sum();
+        long clientHeapAfter = usedHeapAfterGc();
+        Map<String, Double> serverAfter = serverMetrics();
+
+        System.out.println("\n=== 📊 结果 ===");
+        System.out.printf("存活连接: %,d, 中途断开: %,d, 收到事件: %,d%n", open, closed.sum(), events.sum());
+        printPercentiles("通知端到端延迟（保持阶段）", notificationLagMicros);
+        printPercentiles("投递偏差（保持阶段，相对最早收到该事件的连接）", deliverySkewMicros);
+
+        String heapScope = options.embedded ? "客户端+服务端" : "客户端";
+        System.out.printf("%s堆内存: %,d MB -> %,d MB, 每连接 %,.1f KB%n", heapScope,
+                clientHeapBefore >> 20, clientHeapAfter >> 20,
+                perConnectionKb(clientHeapAfter - clientHeapBefore, open));
+        if (!options.embedded && !serverBefore.isEmpty() && !serverAfter.isEmpty()) {
+            // 无法远程触发 GC，服务端数值包含未回收的垃圾，只作参考
+            double serverHeapDelta = serverAfter.get("heap") - serverBefore.get("heap");
+            System.out.printf("服务端堆内存（未 GC）: %,.0f MB -> %,.0f MB, 每连接约 %,.1f KB%n",
+                    serverBefore.get("heap") / (1 << 20), serverAfter.get("heap") / (1 << 20),
+                    perConnectionKb((long) serverHeapDelta, open));
+            System.out.printf("服务端文件描述符: %,.0f -> %,.0f%n", serverBefore.get("fds"), serverAfter.get("fds"));
+        }
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof UnixOperatingSystemMXBean os) {
+            System.out.printf("%s文件描述符: %,d / 上限 %,d%n", options.embedded ? "进程" : "客户端",
+                    os.getOpenFileDescriptorCount(), os.getMaxFileDescriptorCount());
+        }
+
+        connections.forEach(Disposable::dispose);
+        loops.disposeLater().block(Duration.ofSeconds(10));
+    }
+
+    // 建连成功（收到响应头）或失败时完成；之后事件流在后台继续接收
+    private Mono<Void> open(int index) {
+        String target = options.targets.get(index % options.targets.size());
+        String path = options.paths.get(index / options.targets.size() % options.paths.size());
+        return Mono.create(connected -> {
+            long started = System.nanoTime();
+            boolean[] up = new boolean[1];
+            EventReader reader = new EventReader(path);
+            Disposable connection = client.get()
+                    .uri(target + path)
+                    .response((response, body) -> {
+                        connectMicros.recordValue((System.nanoTime() - started) / 1_000);
+                        established.increment();
+                        up[0] = true;
+                        connected.success();
+                        return body.asString(StandardCharsets.UTF_8).doOnNext(reader::feed);
+                    })
+                    .subscribe(chunk -> { }, error -> {
+                        (up[0] ? closed : failed).increment();
+                        connected.success();
+                    }, closed::increment);
+            connections.add(connection);
+        });
+    }
+
+    // 单个连接上的 SSE 解析：数据块可能在任意位置切开，按空行拼出完整事件
+    private final class EventReader {
+        private final String path;
+        private final StringBuilder pending = new StringBuilder();
+
+        EventReader(String path) {
+            this.path = path;
+        }
+
+        void feed(String chunk) {
+            pending.append(chunk);
+            int end;
+            while ((end = pending.indexOf("\n\n")) >= 0) {
+                String event = pending.substring(0, end);
+                pending.delete(0, end + 2);
+                if (event.startsWith("data:")) {
+                    onEvent(event.substring("data:".length()));
+                }
+            }
+        }
+
+        private void onEvent(String data) {
+            long now = System.nanoTime();
+            events.increment();
+            Matcher notification = NOTIFICATION.matcher(data);
+            Matcher product = PRODUCT_ID.matcher(data);
+            String id;
+            if (notification.matches()) {
+                id = notification.group(1);
+            } else if (product.find()) {
+                id = product.group(1);
+            } else {
+                return;
+            }
+            Long first = firstDelivery.putIfAbsent(path + '#' + id, now);
+            if (steady) {
+                deliverySkewMicros.recordValue(first == null ? 0 : (now - first) / 1_000);
+                if (notification.matches()) {
+                    recordNotificationLag(notification.group(2));
+                }
+            }
+        }
+    }
+
+    // 通知内容里带有服务端的 LocalTime（同一台机器或时钟同步时有意义），跨午夜的样本丢弃
+    private void recordNotificationLag(String serverTime) {
+        try {
+            long lagNanos = LocalTime.now().toNanoOfDay() - LocalTime.parse(serverTime).toNanoOfDay();
+            if (lagNanos >= 0) {
+                notificationLagMicros.recordValue(lagNanos / 1_000);
+            }
+        } catch (DateTimeParseException ignored) {
+            // 非预期格式的通知不计入延迟
+        }
+    }
+
+    private void checkFileDescriptorLimit() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof UnixOperatingSystemMXBean unix && unix.getMaxFileDescriptorCount() < options.connections + 1_000L) {
+            System.out.printf("⚠️  文件描述符上限 %,d 小于连接数，请先调高 ulimit -n%n", unix.getMaxFileDescriptorCount());
+        }
+        int perTarget = options.connections / options.targets.size();
+        if (perTarget > 28_000) {
+            System.out.printf("⚠️  每个目标地址 %,d 个连接，可能超出本机临时端口范围，请增加 --targets%n", perTarget);
+        }
+    }
+
+    // 通过 actuator 读取服务端堆内存与文件描述符；不可用时返回空
+    private Map<String, Double> serverMetrics() {
+        if (options.embedded) {
+            return Map.of();
+        }
+        try (java.net.http.HttpClient http = java.net.http.HttpClient.newHttpClient()) {
+            String base = options.targets.getFirst() + "/actuator/metrics/";
+            return Map.of(
+                    "heap", metricValue(http, base + "jvm.memory.used?tag=area:heap"),
+                    "fds", metricValue(http, base + "process.files.open"));
+        } catch (Exception e) {
+            System.out.println("⚠️  无法读取服务端 actuator 指标: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static double metricValue(java.net.http.HttpClient http, String url) throws Exception {
+        String json = http.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher value = Pattern.compile("\"statistic\":\"VALUE\",\"value\":([0-9.E+-]+)").matcher(json);
+        if (!value.find()) {
+            throw new IllegalStateException("Unexpected metric response from " + url);
+        }
+        return Double.parseDouble(value.group(1));
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static double perConnectionKb(long bytes, long connections) {
+        return connections == 0 ? 0 : bytes / 1024.0 / connections;
+    }
+
+    static void printPercentiles(String label, Histogram micros) {
+        if (micros.getTotalCount() == 0) {
+            System.out.printf("%s: 无样本%n", label);
+            return;
+        }
+        System.out.printf("%s (%,d 个样本): p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                label, micros.getTotalCount(),
+                micros.getValueAtPercentile(50) / 1e3, micros.getValueAtPercentile(90) / 1e3,
+                micros.getValueAtPercentile(99) / 1e3, micros.getValueAtPercentile(99.9) / 1e3,
+                micros.getMaxValue() / 1e3);
+    }
+
+    private record Options(int connections, List<String> targets, List<String> paths,
+                           int connectConcurrency, int holdSeconds, boolean embedded) {
+
+        static Options parse(List<String> args) {
+            return new Options(
+                    Integer.parseInt(value(args, "--connections=", "10000")),
+                    split(value(args, "--targets=", "http://127.0.0.1:8080")),
+                    split(value(args, "--paths=", "/api/v4/notifications,/api/v4/products/stream")),
+                    Integer.parseInt(value(args, "--connect-concurrency=", "1000")),
+                    Integer.parseInt(value(args, "--hold-seconds=", "30")),
+                    args.contains("--embedded"));
+        }
+
+        Options withTargets(List<String> targets) {
+            return new Options(connections, targets, paths, connectConcurrency, holdSeconds, embedded);
+        }
+
+        private static String value(List<String> args, String prefix, String defaultValue) {
+            return args.stream()
+                    .filter(arg -> arg.startsWith(prefix))
+                    .map(arg -> arg.substring(prefix.length()))
+                    .findFirst()
+                    .orElse(defaultValue);
+        }
+
+        private static List<String> split(String value) {
+            return Arrays.stream(value.split(",")).map(String::strip).toList();
+        }
+    }
+}
@@ -2,8 +2,16 @@ package com.brian.springstarter;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+// With spring.threads.virtual.enabled (tomcat-vt profile) Boot backs both the @Async executor
+// and the @Scheduled scheduler with virtual threads, just like Tomcat's request handling
+@EnableAsync
+@EnableScheduling
 public class SpringStarterApplication {
 
     public static void main(String[] args) {
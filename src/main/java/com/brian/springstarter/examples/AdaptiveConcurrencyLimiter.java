@@ -0,0 +1,150 @@
+package com.brian.springstarter.examples;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Adaptive cap on concurrent requests for one route, in the style of TCP Vegas: the limit is raised while
+// response times stay near the lowest seen (no queueing) and lowered once they grow, since then the extra
+// requests only wait in some queue behind the others. Requests over the limit are rejected up front, so
+// latency stays bounded under overload instead of growing with the backlog.
+// Completed requests are summed per window and the limit is re-estimated once per window by whichever
+// request completes first after it ends; acquiring and releasing are lock-free.
+public final class AdaptiveConcurrencyLimiter {
+
+    // Every PROBE_EVERY windows the no-load latency is reset to the current one, so a baseline that has
+    // moved up for good (slower downstream, bigger payloads) does not keep the limit pinned down
+    private static final int PROBE_EVERY = 300;
+    // Applied to the limit when requests failed from overload (503, 504, 429, timeouts)
+    private static final double BACKOFF = 0.9;
+    // Weight of each window when shrinking towards the concurrency that would not queue
+    private static final double SMOOTHING = 0.2;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    private final LongAdder windowLatency = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder windowDrops = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicLong windowStart;
+
+    // Guarded by this
+    private double estimate;
+    private long noLoadLatency = Long.MAX_VALUE;
+    private int windowsSinceProbe;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, long windowNanos) {
+        this(name, initialLimit, minLimit, maxLimit, windowNanos, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, long windowNanos,
+                               LongSupplier clock) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+        this.clock = clock;
+        this.estimate = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimate;
+        this.windowStart = new AtomicLong(clock.getAsLong());
+    }
+
+    // False, and counted as rejected, if the limit is reached
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+        return true;
+    }
+
+    // latencyNanos of the request that held the permit; dropped if it failed because something was overloaded
+    public void release(long latencyNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+        if (dropped) {
+            windowDrops.increment();
+        } else {
+            windowLatency.add(latencyNanos);
+            windowSamples.increment();
+        }
+        long now = clock.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            update();
+        }
+    }
+
+    // A request cancelled by its client frees the permit without saying anything about latency
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void update() {
+        long samples = windowSamples.sumThenReset();
+        long latency = windowLatency.sumThenReset();
+        long drops = windowDrops.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+        if (drops > 0) {
+            setEstimate(estimate * BACKOFF);
+            return;
+        }
+        if (samples == 0) {
+            return;
+        }
+        long average = latency / samples;
+        if (average < noLoadLatency || ++windowsSinceProbe >= PROBE_EVERY) {
+            noLoadLatency = average;
+            windowsSinceProbe = 0;
+        }
+        // Traffic never came near the limit, so the latency says nothing about whether it is right
+        if (maxInFlight * 2 < estimate) {
+            return;
+        }
+        double log = Math.max(1, Math.log10(estimate));
+        double queued = estimate * (1 - (double) noLoadLatency / average);
+        if (queued <= log) {
+            setEstimate(estimate + 6 * log);
+        } else if (queued < 3 * log) {
+            setEstimate(estimate + log);
+        } else if (queued > 6 * log) {
+            // Additive decrease alone takes seconds to drain a large limit; overload needs to shrink it sooner
+            double unqueued = estimate * noLoadLatency / average + log;
+            setEstimate(estimate * (1 - SMOOTHING) + unqueued * SMOOTHING);
+        }
+    }
+
+    private void setEstimate(double value) {
+        estimate = Math.clamp(value, minLimit, maxLimit);
+        limit = (int) estimate;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
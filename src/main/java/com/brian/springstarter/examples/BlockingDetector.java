@@ -0,0 +1,259 @@
+package com.brian.springstarter.examples;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Watchdog for threads that must never block: Netty event loops and Reactor's non-blocking schedulers
+// (parallel, single). A watchdog thread checks them every threshold / 2; a thread busy with one task for
+// longer than the threshold is reported with its stack trace as captured while it is still stuck, so the
+// top frames show the blocking call itself (Thread.sleep, a JDBC read, a block()).
+//   Event loops: a heartbeat task is queued on each loop; a heartbeat still waiting after the threshold
+//   means the task in front of it has held the loop that long.
+//   Reactor schedulers: Schedulers.onScheduleHook wraps each task run on a NonBlocking thread to mark its
+//   start and end.
+// No bytecode instrumentation (unlike BlockHound), so a short blocking call under the threshold goes unseen;
+// the cost is two nanoTime calls per scheduled task and one heartbeat per loop per check.
+// Sites are aggregated by the top frames of the stack; the first occurrence of each is logged in full.
+public final class BlockingDetector implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockingDetector.class);
+
+    private static final String HOOK_KEY = "blocking-detector";
+    private static final long IDLE = Long.MIN_VALUE;
+
+    public enum Kind {
+        EVENT_LOOP,
+        SCHEDULER
+    }
+
+    private final long thresholdNanos;
+    private final int stackDepth;
+    private final ScheduledExecutorService watchdog;
+    private final List<LoopSlot> loops = new CopyOnWriteArrayList<>();
+    private final Set<TaskSlot> tasks = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<TaskSlot> currentTask = ThreadLocal.withInitial(this::newTaskSlot);
+    private final Map<String, BlockedSite> sites = new ConcurrentHashMap<>();
+    private final Map<Kind, LongAdder> detections = new EnumMap<>(Kind.class);
+    private volatile boolean hooked;
+
+    private BlockingDetector(Duration threshold, int stackDepth) {
+        this.thresholdNanos = threshold.toNanos();
+        this.stackDepth = stackDepth;
+        for (Kind kind : Kind.values()) {
+            detections.put(kind, new LongAdder());
+        }
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "blocking-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(TimeUnit.MILLISECONDS.toNanos(5), thresholdNanos / 2);
+        watchdog.scheduleAtFixedRate(this::check, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    // stackDepth: frames kept per reported site
+    public static BlockingDetector start(Duration threshold, int stackDepth) {
+        return new BlockingDetector(threshold, stackDepth);
+    }
+
+    // Tasks scheduled on Reactor's NonBlocking threads from now on
+    public BlockingDetector watchReactorSchedulers() {
+        Schedulers.onScheduleHook(HOOK_KEY, this::track);
+        hooked = true;
+        return this;
+    }
+
+    // Every loop of the group, e.g. the server's LoopResources.onServer(...)
+    public BlockingDetector watch(EventExecutorGroup group) {
+        for (EventExecutor executor : group) {
+            LoopSlot loop = new LoopSlot(executor);
+            loops.add(loop);
+            loop.beat(System.nanoTime());
+        }
+        return this;
+    }
+
+    private Runnable track(Runnable task) {
+        return () -> {
+            if (!Schedulers.isInNonBlockingThread()) {
+                task.run();
+                return;
+            }
+            TaskSlot slot = currentTask.get();
+            long outer = slot.startedAt;
+            slot.startedAt = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                slot.startedAt = outer;
+            }
+        };
+    }
+
+    private TaskSlot newTaskSlot() {
+        TaskSlot slot = new TaskSlot(Thread.currentThread());
+        tasks.add(slot);
+        return slot;
+    }
+
+    private void check() {
+        try {
+            long now = System.nanoTime();
+            for (LoopSlot loop : loops) {
+                if (loop.executor.isShuttingDown()) {
+                    loops.remove(loop);
+                    continue;
+                }
+                long since = loop.pendingSince.get();
+                if (since == IDLE) {
+                    loop.beat(now);
+                } else if (now - since >= thresholdNanos && loop.reportedFor != since && loop.thread != null) {
+                    loop.reportedFor = since;
+                    report(Kind.EVENT_LOOP, loop.thread, now - since);
+                }
+            }
+            for (TaskSlot slot : tasks) {
+                if (!slot.thread.isAlive()) {
+                    tasks.remove(slot);
+                    continue;
+                }
+                long started = slot.startedAt;
+                if (started != IDLE && now - started >= thresholdNanos && slot.reportedFor != started) {
+                    slot.reportedFor = started;
+                    report(Kind.SCHEDULER, slot.thread, now - started);
+                }
+            }
+        } catch (RuntimeException e) {
+            // A failed check must not cancel the periodic task
+            log.warn("Blocking detector check failed", e);
+        }
+    }
+
+    private void report(Kind kind, Thread thread, long blockedNanos) {
+        String stack = Arrays.stream(thread.getStackTrace())
+                .limit(stackDepth)
+                .map(StackTraceElement::toString)
+                .collect(Collectors.joining("\n    at ", "    at ", ""));
+        detections.get(kind).increment();
+        boolean[] first = {false};
+        BlockedSite site = sites.computeIfAbsent(stack, key -> {
+            first[0] = true;
+            return new BlockedSite(kind, key);
+        });
+        site.record(blockedNanos);
+        if (first[0]) {
+            log.warn("{} thread '{}' blocked for more than {} ms at\n{}", kind, thread.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(blockedNanos), stack);
+        } else {
+            log.debug("{} thread '{}' blocked again ({} times at this site)", kind, thread.getName(), site.count());
+        }
+    }
+
+    // Most frequent first
+    public List<BlockedSite> sites() {
+        return sites.values().stream()
+                .sorted(Comparator.comparingLong(BlockedSite::count).reversed())
+                .toList();
+    }
+
+    public long detections(Kind kind) {
+        return detections.get(kind).sum();
+    }
+
+    @Override
+    public void close() {
+        if (hooked) {
+            Schedulers.resetOnScheduleHook(HOOK_KEY);
+        }
+        watchdog.shutdownNow();
+    }
+
+    // Heartbeat state of one event loop; the heartbeat task itself is allocated once
+    private static final class LoopSlot {
+        private final EventExecutor executor;
+        private final AtomicLong pendingSince = new AtomicLong(IDLE);
+        private final Runnable heartbeat;
+        private volatile Thread thread;
+        // Watchdog thread only
+        private long reportedFor = IDLE;
+
+        LoopSlot(EventExecutor executor) {
+            this.executor = executor;
+            this.heartbeat = () -> {
+                thread = Thread.currentThread();
+                pendingSince.set(IDLE);
+            };
+        }
+
+        void beat(long now) {
+            if (pendingSince.compareAndSet(IDLE, now)) {
+                executor.execute(heartbeat);
+            }
+        }
+    }
+
+    // Start of the task currently running on one scheduler thread
+    private static final class TaskSlot {
+        private final Thread thread;
+        private volatile long startedAt = IDLE;
+        // Watchdog thread only
+        private long reportedFor = IDLE;
+
+        TaskSlot(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    // One blocking call site: how often it was caught and the longest stall seen at detection time
+    public static final class BlockedSite {
+        private final Kind kind;
+        private final String stack;
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong longestNanos = new AtomicLong();
+
+        private BlockedSite(Kind kind, String stack) {
+            this.kind = kind;
+            this.stack = stack;
+        }
+
+        private void record(long blockedNanos) {
+            count.increment();
+            longestNanos.accumulateAndGet(blockedNanos, Math::max);
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        public String stack() {
+            return stack;
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public Duration longest() {
+            return Duration.ofNanos(longestNanos.get());
+        }
+    }
+}
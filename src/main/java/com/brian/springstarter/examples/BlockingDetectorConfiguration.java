@@ -0,0 +1,39 @@
+package com.brian.springstarter.examples;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import reactor.netty.resources.LoopResources;
+
+import java.util.Locale;
+
+// starter.blocking-detector.enabled=true: watches Reactor's non-blocking schedulers and the Reactor Netty
+// event loops shared by the server (netty profile) and the WebClients. Detections are logged with their
+// stack trace and counted as starter.blocking.detected (kind=event_loop / scheduler)
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnBooleanProperty("starter.blocking-detector.enabled")
+public class BlockingDetectorConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public BlockingDetector blockingDetector(BlockingDetectorProperties properties,
+                                             ObjectProvider<ReactorResourceFactory> reactorResources,
+                                             MeterRegistry meterRegistry) {
+        BlockingDetector detector = BlockingDetector.start(properties.threshold(), properties.stackDepth())
+                .watchReactorSchedulers();
+        // The same loops the server and the connection pools run on (LoopResources.DEFAULT_NATIVE is what
+        // Reactor Netty picks when given LoopResources without a transport preference)
+        reactorResources.ifAvailable(resources ->
+                detector.watch(resources.getLoopResources().onServer(LoopResources.DEFAULT_NATIVE)));
+        for (BlockingDetector.Kind kind : BlockingDetector.Kind.values()) {
+            FunctionCounter.builder("starter.blocking.detected", detector, d -> d.detections(kind))
+                    .description("Tasks caught holding a non-blocking thread beyond the threshold")
+                    .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        return detector;
+    }
+}
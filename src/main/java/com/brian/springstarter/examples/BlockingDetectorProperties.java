@@ -0,0 +1,17 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Reports tasks that block an event loop or a non-blocking Reactor scheduler thread (starter.blocking-detector.*)
+@ConfigurationProperties("starter.blocking-detector")
+public record BlockingDetectorProperties(
+        // Opt-in: meant for development and load tests
+        @DefaultValue("false") boolean enabled,
+        // A task holding the thread longer than this is reported
+        @DefaultValue("50ms") Duration threshold,
+        // Frames kept per reported stack trace
+        @DefaultValue("16") int stackDepth) {
+}
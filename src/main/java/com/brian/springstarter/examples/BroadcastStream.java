@@ -0,0 +1,144 @@
+package com.brian.springstarter.examples;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// A single hot source shared by every subscriber of a fan-out endpoint.
+// The source is subscribed once, so each tick costs one timer and one element regardless of how many
+// clients are connected. Every subscriber gets its own bounded buffer; what happens when a slow
+// subscriber's buffer is full is decided by the SlowConsumerPolicy.
+public final class BroadcastStream<T> implements Disposable {
+
+    public enum SlowConsumerPolicy {
+        // Evict the oldest buffered element to make room for the new one
+        DROP_OLDEST,
+        // Discard the new element, keep what is buffered
+        DROP_LATEST,
+        // Terminate the subscriber with an overflow error, which closes its connection
+        DISCONNECT
+    }
+
+    // Per subscriber: how long the first element took to be delivered after subscribing, and how far apart
+    // the following ones were. Called on the delivering thread, so implementations must not block
+    public interface DeliveryListener {
+
+        DeliveryListener NONE = new DeliveryListener() {
+            @Override
+            public void first(long nanosSinceSubscribe) {
+            }
+
+            @Override
+            public void next(long nanosSincePrevious) {
+            }
+        };
+
+        void first(long nanosSinceSubscribe);
+
+        void next(long nanosSincePrevious);
+    }
+
+    private final Sinks.Many<T> sink;
+    private final Disposable source;
+    private final int bufferSize;
+    private final SlowConsumerPolicy policy;
+    private final Runnable onDropped;
+    private final DeliveryListener deliveries;
+    private final AtomicInteger bridges = new AtomicInteger();
+
+    // replayLatest: a new subscriber immediately receives the most recent element instead of
+    // waiting for the next tick
+    public BroadcastStream(Flux<T> source, boolean replayLatest, int bufferSize,
+                           SlowConsumerPolicy policy, Runnable onDropped) {
+        this(source, replayLatest, bufferSize, policy, onDropped, DeliveryListener.NONE);
+    }
+
+    public BroadcastStream(Flux<T> source, boolean replayLatest, int bufferSize,
+                           SlowConsumerPolicy policy, Runnable onDropped, DeliveryListener deliveries) {
+        this.sink = replayLatest
+                ? Sinks.many().replay().latest()
+                : Sinks.many().multicast().directBestEffort();
+        this.bufferSize = bufferSize;
+        this.policy = policy;
+        this.onDropped = onDropped;
+        this.deliveries = deliveries;
+        // The source is expected to emit serially (e.g. Flux.interval), so tryEmitNext never races
+        this.source = source.subscribe(sink::tryEmitNext, sink::tryEmitError, sink::tryEmitComplete);
+    }
+
+    public Flux<T> subscribe() {
+        return buffered(sink.asFlux());
+    }
+
+    // Like subscribe(), but perSubscriber runs on the emitting thread before the element enters the
+    // subscriber's buffer (returning null skips the element). Anything that leaves the buffer without
+    // being delivered, because the policy dropped it or the subscriber cancelled, is passed to release.
+    public <R> Flux<R> subscribe(Function<? super T, ? extends R> perSubscriber, Class<R> type,
+                                 Consumer<? super R> release) {
+        return buffered(sink.asFlux().<R>handle((element, out) -> {
+                    R mapped = perSubscriber.apply(element);
+                    if (mapped != null) {
+                        out.next(mapped);
+                    }
+                }))
+                .doOnDiscard(type, release);
+    }
+
+    // For feeding another stream from this one: no buffer, no delivery timing, and not counted by
+    // subscriberCount(), so the meters only see clients. The consumer must keep up with the source
+    public Flux<T> bridge() {
+        return sink.asFlux()
+                .doOnSubscribe(subscription -> bridges.incrementAndGet())
+                .doFinally(signal -> bridges.decrementAndGet());
+    }
+
+    private <E> Flux<E> buffered(Flux<E> shared) {
+        Consumer<E> dropped = element -> onDropped.run();
+        Flux<E> buffered = switch (policy) {
+            case DROP_OLDEST -> shared.onBackpressureBuffer(bufferSize, dropped, BufferOverflowStrategy.DROP_OLDEST);
+            case DROP_LATEST -> shared.onBackpressureBuffer(bufferSize, dropped, BufferOverflowStrategy.DROP_LATEST);
+            case DISCONNECT -> shared.onBackpressureBuffer(bufferSize, dropped, BufferOverflowStrategy.ERROR);
+        };
+        return deliveries == DeliveryListener.NONE ? buffered : timed(buffered);
+    }
+
+    // Measured as elements leave the subscriber's buffer, so a slow connection shows up as longer gaps
+    private <E> Flux<E> timed(Flux<E> buffered) {
+        return Flux.defer(() -> {
+            // Time of the subscription, then of the last delivery, and whether anything was delivered yet
+            long[] last = {System.nanoTime()};
+            boolean[] started = {false};
+            return buffered.doOnNext(element -> {
+                long now = System.nanoTime();
+                if (started[0]) {
+                    deliveries.next(now - last[0]);
+                } else {
+                    started[0] = true;
+                    deliveries.first(now - last[0]);
+                }
+                last[0] = now;
+            });
+        });
+    }
+
+    // Clients only. The sink registers a bridge just before or after it is counted here, hence the clamp
+    public int subscriberCount() {
+        return Math.max(0, sink.currentSubscriberCount() - bridges.get());
+    }
+
+    @Override
+    public void dispose() {
+        source.dispose();
+        sink.tryEmitComplete();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return source.isDisposed();
+    }
+}
@@ -0,0 +1,211 @@
+package com.brian.springstarter.examples;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+// In-process circuit breaker for one dependency, over a count-based sliding window of the last window-size calls.
+// CLOSED: calls pass; once at least minimum-calls are in the window and the failure rate or the slow-call rate
+// reaches its threshold, the breaker opens. OPEN: calls fail immediately with CircuitOpenException, so a browned-out
+// dependency costs nothing but the fallback. After open-duration the next call moves it to HALF_OPEN: up to
+// half-open-calls trial calls pass; all of them succeeding quickly closes it again, any failure or slow call
+// reopens it.
+// Exported as starter.circuit.state (0 closed, 1 open, 2 half-open), starter.circuit.transitions (from / to)
+// and starter.circuit.rejected, tagged with the breaker name. State changes take a short lock; the window is
+// a ring of per-call flags, so recording a call is O(1).
+public final class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    public record Settings(
+            // Calls in the sliding window
+            @DefaultValue("50") int windowSize,
+            // No decision is taken on fewer calls than this
+            @DefaultValue("10") int minimumCalls,
+            // Fraction of failed calls in the window that opens the breaker
+            @DefaultValue("0.5") double failureRateThreshold,
+            // Calls taking longer than this count as slow, whether they succeed or not
+            @DefaultValue("1s") Duration slowCallDuration,
+            // Fraction of slow calls in the window that opens the breaker
+            @DefaultValue("0.8") double slowCallRateThreshold,
+            // How long the breaker stays open before trial calls are let through
+            @DefaultValue("10s") Duration openDuration,
+            // Trial calls in the half-open state
+            @DefaultValue("3") int halfOpenCalls) {
+    }
+
+    private final String name;
+    private final Settings settings;
+    private final Predicate<Throwable> recordAsFailure;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    // Guarded by this
+    private final byte[] window;
+    private int next;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+    private State state = State.CLOSED;
+    // Bumped on every transition; results of calls admitted under an older generation are ignored
+    private long generation;
+    private long openedAt;
+    private int trialsInFlight;
+    private int trialsSucceeded;
+
+    // recordAsFailure decides which errors say something about the dependency's health (not a 404, say)
+    public CircuitBreaker(String name, Settings settings, Predicate<Throwable> recordAsFailure,
+                          MeterRegistry meterRegistry) {
+        this.name = name;
+        this.settings = settings;
+        this.recordAsFailure = recordAsFailure;
+        this.meterRegistry = meterRegistry;
+        this.window = new byte[settings.windowSize()];
+        this.rejected = Counter.builder("starter.circuit.rejected")
+                .description("Calls failed fast while the breaker was open")
+                .tag("breaker", name)
+                .register(meterRegistry);
+        Gauge.builder("starter.circuit.state", this, breaker -> breaker.state().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .tag("breaker", name)
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> mono(Mono<T> call) {
+        return Mono.defer(() -> {
+            long admitted = tryAcquire();
+            if (admitted < 0) {
+                return Mono.error(new CircuitOpenException(name));
+            }
+            long start = System.nanoTime();
+            return call.doOnSuccess(value -> completed(admitted, start, null))
+                    .doOnError(e -> completed(admitted, start, e))
+                    .doOnCancel(() -> cancelled(admitted));
+        });
+    }
+
+    public <T> Flux<T> flux(Flux<T> call) {
+        return Flux.defer(() -> {
+            long admitted = tryAcquire();
+            if (admitted < 0) {
+                return Flux.error(new CircuitOpenException(name));
+            }
+            long start = System.nanoTime();
+            return call.doOnComplete(() -> completed(admitted, start, null))
+                    .doOnError(e -> completed(admitted, start, e))
+                    .doOnCancel(() -> cancelled(admitted));
+        });
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    // The generation the call was admitted under, or -1 if it is rejected
+    private synchronized long tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= settings.openDuration().toNanos()) {
+            transition(State.HALF_OPEN);
+        }
+        boolean admitted = switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> trialsInFlight + trialsSucceeded < settings.halfOpenCalls();
+        };
+        if (!admitted) {
+            rejected.increment();
+            return -1;
+        }
+        if (state == State.HALF_OPEN) {
+            trialsInFlight++;
+        }
+        return generation;
+    }
+
+    private void completed(long admitted, long start, Throwable error) {
+        boolean failed = error != null && recordAsFailure.test(error);
+        boolean slow = System.nanoTime() - start >= settings.slowCallDuration().toNanos();
+        record(admitted, failed, slow);
+    }
+
+    private synchronized void record(long admitted, boolean failed, boolean slow) {
+        if (admitted != generation) {
+            return;
+        }
+        switch (state) {
+            case CLOSED -> {
+                byte evicted = window[next];
+                if (calls == window.length) {
+                    failures -= evicted & FAILED;
+                    slowCalls -= (evicted & SLOW) >> 1;
+                } else {
+                    calls++;
+                }
+                window[next] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+                next = (next + 1) % window.length;
+                failures += failed ? 1 : 0;
+                slowCalls += slow ? 1 : 0;
+                if (calls >= settings.minimumCalls()
+                        && (failures >= settings.failureRateThreshold() * calls
+                        || slowCalls >= settings.slowCallRateThreshold() * calls)) {
+                    transition(State.OPEN);
+                }
+            }
+            case HALF_OPEN -> {
+                trialsInFlight--;
+                if (failed || slow) {
+                    transition(State.OPEN);
+                } else if (++trialsSucceeded == settings.halfOpenCalls()) {
+                    transition(State.CLOSED);
+                }
+            }
+            case OPEN -> {
+            }
+        }
+    }
+
+    // A cancelled trial call frees its slot without counting either way
+    private synchronized void cancelled(long admitted) {
+        if (admitted == generation && state == State.HALF_OPEN) {
+            trialsInFlight--;
+        }
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        generation++;
+        next = 0;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+        trialsInFlight = 0;
+        trialsSucceeded = 0;
+        if (to == State.OPEN) {
+            openedAt = System.nanoTime();
+        }
+        meterRegistry.counter("starter.circuit.transitions", "breaker", name, "from", from.name(), "to", to.name())
+                .increment();
+        if (to == State.OPEN) {
+            log.warn("Circuit breaker '{}' opened ({} -> OPEN) for {}", name, from, settings.openDuration());
+        } else {
+            log.info("Circuit breaker '{}' {} -> {}", name, from, to);
+        }
+    }
+}
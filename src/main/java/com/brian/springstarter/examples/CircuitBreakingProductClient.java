@@ -0,0 +1,44 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import com.brian.springstarter.examples.SpringBoot4Features.ProductClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Outermost ProductClient layer: a bulkhead (ResourceGuard "product-client") caps the calls in flight to the
+// upstream, and a circuit breaker stops calling it while it is failing or slow. Both fail fast, with
+// ResourceBusyException and CircuitOpenException, so callers can fall back instead of queueing behind a
+// struggling dependency. The breaker sees each call after hedging and retries, i.e. one outcome per call.
+// Bulkhead rejections never reach the breaker: a local limit says nothing about the upstream's health.
+public class CircuitBreakingProductClient implements ProductClient {
+
+    private final ProductClient upstream;
+    private final ResourceGuard bulkhead;
+    private final CircuitBreaker breaker;
+
+    public CircuitBreakingProductClient(ProductClient upstream, ResourceGuard bulkhead, CircuitBreaker breaker) {
+        this.upstream = upstream;
+        this.bulkhead = bulkhead;
+        this.breaker = breaker;
+    }
+
+    @Override
+    public Mono<Product> getProduct(Long id) {
+        return bulkhead.mono(() -> breaker.mono(upstream.getProduct(id)));
+    }
+
+    @Override
+    public Flux<Product> getProducts() {
+        return bulkhead.flux(() -> breaker.flux(upstream.getProducts()));
+    }
+
+    // Client errors are answers about the request (no such product), not failures of the upstream; 429 is
+    // the upstream shedding load and counts
+    static boolean recordAsFailure(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return !response.getStatusCode().is4xxClientError() || response.getStatusCode().value() == 429;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,13 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// A CircuitBreaker was open and failed the call without trying the dependency; surfaces as 503
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String breaker) {
+        super("Circuit breaker '" + breaker + "' is open");
+    }
+}
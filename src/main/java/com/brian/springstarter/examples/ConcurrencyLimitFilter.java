@@ -0,0 +1,143 @@
+package com.brian.springstarter.examples;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+// Load shedding for the reactive stack: each route (starter.concurrency-limit.routes.*, matched on path
+// and method) has an AdaptiveConcurrencyLimiter, and a request arriving while its route is at the limit is
+// answered with 503 and Retry-After right away, before any handler runs. The servlet stacks are bounded by
+// their thread pools and resource guards instead.
+// Exported as starter.concurrency.limit, starter.concurrency.in-flight and starter.concurrency.rejected,
+// tagged with the route name.
+@Component
+// Ahead of the application's other filters, so a rejected request does no further work
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnBooleanProperty(name = "starter.concurrency-limit.enabled", matchIfMissing = true)
+public class ConcurrencyLimitFilter implements WebFilter {
+
+    static final String DEFAULT_ROUTE = "default";
+
+    private record RoutePattern(PathPattern pattern, List<HttpMethod> methods, AdaptiveConcurrencyLimiter limiter) {
+
+        boolean matches(HttpMethod method, PathContainer path) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+    }
+
+    private final List<PathPattern> excluded;
+    // Most specific pattern first; for the same pattern, a route restricted to some methods comes first
+    private final List<RoutePattern> routes = new ArrayList<>();
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.excluded = properties.exclude().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        add(DEFAULT_ROUTE, properties.defaults(), properties, meterRegistry);
+        if (properties.routes() != null) {
+            properties.routes().forEach((name, route) -> add(name, route, properties, meterRegistry));
+        }
+        routes.sort(Comparator.comparing(RoutePattern::pattern, PathPattern.SPECIFICITY_COMPARATOR)
+                .thenComparing(route -> route.methods().isEmpty()));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        AdaptiveConcurrencyLimiter limiter = limiterFor(request.getMethod(), request.getPath().pathWithinApplication());
+        if (limiter == null) {
+            return chain.filter(exchange);
+        }
+        if (!limiter.tryAcquire()) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return response.setComplete();
+        }
+        long start = System.nanoTime();
+        // Completes once the response has been written; errors pass through here on their way to the
+        // exception handlers, so a 404 arrives as an error and an overload 503 may arrive either way
+        return chain.filter(exchange)
+                .doOnSuccess(done -> limiter.release(System.nanoTime() - start,
+                        overloaded(exchange.getResponse().getStatusCode())))
+                .doOnError(e -> limiter.release(System.nanoTime() - start, overloaded(e)))
+                .doOnCancel(limiter::cancel);
+    }
+
+    // Null if the request is not limited
+    AdaptiveConcurrencyLimiter limiterFor(HttpMethod method, PathContainer path) {
+        for (PathPattern pattern : excluded) {
+            if (pattern.matches(path)) {
+                return null;
+            }
+        }
+        for (RoutePattern route : routes) {
+            if (route.matches(method, path)) {
+                return route.limiter();
+            }
+        }
+        return null;
+    }
+
+    private void add(String name, ConcurrencyLimitProperties.Route route, ConcurrencyLimitProperties properties,
+                     MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(name, route.initialLimit(),
+                route.minLimit(), route.maxLimit(), properties.window().toNanos());
+        route.patterns().forEach(pattern -> routes.add(
+                new RoutePattern(PathPatternParser.defaultInstance.parse(pattern), route.methods(), limiter)));
+        Gauge.builder("starter.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("route", name)
+                .register(meterRegistry);
+        Gauge.builder("starter.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requests currently holding a permit")
+                .tag("route", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("starter.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::rejected)
+                .description("Requests rejected with 503 at the limit")
+                .tag("route", name)
+                .register(meterRegistry);
+    }
+
+    // Responses that say a resource behind the route is saturated, which backs the limit off
+    private static boolean overloaded(HttpStatusCode status) {
+        return status != null && (status.value() == 503 || status.value() == 504 || status.value() == 429);
+    }
+
+    private static boolean overloaded(Throwable e) {
+        if (e instanceof ErrorResponse response) {
+            return overloaded(response.getStatusCode());
+        }
+        // ResourceBusyException, CircuitOpenException
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        if (status != null) {
+            return overloaded(status.code());
+        }
+        return e instanceof TimeoutException;
+    }
+}
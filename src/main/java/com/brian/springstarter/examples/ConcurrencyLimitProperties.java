@@ -0,0 +1,35 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Adaptive per-route concurrency limits for inbound requests (starter.concurrency-limit.*, reactive stack)
+@ConfigurationProperties("starter.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        // Never limited: SSE streams stay open for the whole connection and would hold their permit throughout
+        @DefaultValue({"/api/v4/products/stream", "/api/v4/notifications"}) List<String> exclude,
+        // How often each limit is re-estimated from the requests completed since the last estimate
+        @DefaultValue("100ms") Duration window,
+        // Requests matching no named route; its patterns decide which requests are limited at all
+        @DefaultValue Route defaults,
+        // Keyed by route name, e.g. starter.concurrency-limit.routes.search.patterns; each route has its own
+        // limit and the most specific matching pattern wins. Keep one endpoint per route: the limit is
+        // estimated from the lowest latency seen, so a fast endpoint makes a slow one on its route look queued
+        Map<String, Route> routes) {
+
+    public record Route(
+            // Spring path patterns, e.g. /api/v4/products/{id}
+            @DefaultValue("/api/v4/**") List<String> patterns,
+            // Request methods the route applies to, all if empty
+            @DefaultValue List<HttpMethod> methods,
+            @DefaultValue("20") int initialLimit,
+            @DefaultValue("4") int minLimit,
+            @DefaultValue("1000") int maxLimit) {
+    }
+}
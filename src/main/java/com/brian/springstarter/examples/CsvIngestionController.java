@@ -0,0 +1,88 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.InputStream;
+import java.util.Map;
+
+// POST /api/v4/process-csv - streams a CSV upload of any size and answers with NDJSON revenue lines.
+// The request body type differs per web stack, so each stack gets its own controller.
+// GET /api/v4/process-csv/local - per-product totals for a CSV file already on local disk.
+public final class CsvIngestionController {
+
+    private CsvIngestionController() {
+    }
+
+    @RestController
+    @RequestMapping("/api/v4")
+    public static class LocalFiles {
+
+        private final CsvIngestionService csvIngestionService;
+
+        public LocalFiles(CsvIngestionService csvIngestionService) {
+            this.csvIngestionService = csvIngestionService;
+        }
+
+        // mode=mmap (memory-mapped, parallel across cores) or mode=streaming (same parser as uploads)
+        @GetMapping("/process-csv/local")
+        public Mono<Map<String, Double>> processLocalCsv(@RequestParam String file,
+                                                         @RequestParam(defaultValue = "mmap") String mode) {
+            CsvIngestionService.LocalMode localMode = switch (mode) {
+                case "mmap" -> CsvIngestionService.LocalMode.MMAP;
+                case "streaming" -> CsvIngestionService.LocalMode.STREAMING;
+                default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown mode: " + mode);
+            };
+            return csvIngestionService.revenueByProduct(file, localMode);
+        }
+    }
+
+    // WebFlux: the body arrives as Flux<DataBuffer> and is parsed buffer by buffer
+    @RestController
+    @RequestMapping("/api/v4")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public static class Reactive {
+
+        private final CsvIngestionService csvIngestionService;
+
+        public Reactive(CsvIngestionService csvIngestionService) {
+            this.csvIngestionService = csvIngestionService;
+        }
+
+        @PostMapping(value = "/process-csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        public Flux<DataBuffer> processCsvUpload(@RequestBody Flux<DataBuffer> body, ServerHttpResponse response) {
+            return csvIngestionService.revenueNdjson(body, response.bufferFactory());
+        }
+    }
+
+    // Servlet stack: the body is read as an InputStream on the async request thread
+    @RestController
+    @RequestMapping("/api/v4")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public static class Servlet {
+
+        private final CsvIngestionService csvIngestionService;
+
+        public Servlet(CsvIngestionService csvIngestionService) {
+            this.csvIngestionService = csvIngestionService;
+        }
+
+        @PostMapping(value = "/process-csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        public StreamingResponseBody processCsvUpload(InputStream body) {
+            return out -> csvIngestionService.writeRevenueNdjson(body, out);
+        }
+    }
+}
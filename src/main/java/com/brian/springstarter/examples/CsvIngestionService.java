@@ -0,0 +1,209 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Streaming CSV ingestion: "product,price,quantity" lines in, {"product":...,"revenue":...} NDJSON lines out.
+// Rows are parsed straight from the request buffers and encoded straight into the response bytes,
+// so memory stays bounded by the buffer size no matter how large the upload is.
+@Service
+public class CsvIngestionService implements DisposableBean {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private final CsvProperties properties;
+    private final MappedCsvProcessor mappedProcessor;
+
+    public CsvIngestionService(CsvProperties properties) {
+        this.properties = properties;
+        this.mappedProcessor = new MappedCsvProcessor(properties.effectiveParallelism());
+    }
+
+    // Reactive path: at most one NDJSON buffer per request buffer. The next request buffer is only
+    // requested once the previous output has been written, so a slow client slows down the upload.
+    public Flux<DataBuffer> revenueNdjson(Flux<DataBuffer> body, DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> {
+            NdjsonRevenueWriter writer = new NdjsonRevenueWriter();
+            CsvRevenueParser parser = new CsvRevenueParser(writer);
+            return body.<DataBuffer>handle((buffer, sink) -> {
+                        feed(parser, buffer);
+                        if (!writer.isEmpty()) {
+                            sink.next(writer.drain(bufferFactory));
+                        }
+                    })
+                    .concatWith(Mono.defer(() -> {
+                        parser.finish();
+                        return writer.isEmpty() ? Mono.empty() : Mono.just(writer.drain(bufferFactory));
+                    }))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    // Per-product totals over a streamed body, single-threaded
+    public Mono<Map<String, Double>> revenueByProduct(Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            CsvRevenueTotals totals = new CsvRevenueTotals();
+            CsvRevenueParser parser = new CsvRevenueParser(totals);
+            return body.doOnNext(buffer -> feed(parser, buffer))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then(Mono.fromSupplier(() -> {
+                        parser.finish();
+                        Map<String, Double> result = new TreeMap<>();
+                        totals.mergeInto(result);
+                        return result;
+                    }));
+        });
+    }
+
+    // Per-product totals for a file in starter.csv.local-dir, either memory-mapped and split
+    // across cores or streamed through the same path as uploads, for a head-to-head comparison
+    public Mono<Map<String, Double>> revenueByProduct(String fileName, LocalMode mode) {
+        return Mono.fromCallable(() -> resolveLocalFile(fileName))
+                .flatMap(file -> switch (mode) {
+                    // The calling thread only waits for the chunks, which run on the processor's own workers
+                    case MMAP -> Mono.fromCallable(() -> mappedProcessor.revenueByProduct(file))
+                            .subscribeOn(Schedulers.boundedElastic());
+                    case STREAMING -> revenueByProduct(
+                            DataBufferUtils.read(file, DefaultDataBufferFactory.sharedInstance, CHUNK_SIZE));
+                });
+    }
+
+    Path resolveLocalFile(String fileName) throws IOException {
+        Path dir = properties.localDir().toAbsolutePath().normalize();
+        Path file = dir.resolve(fileName).normalize();
+        if (!file.startsWith(dir)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File must be inside " + dir);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No such file: " + fileName);
+        }
+        // normalize() leaves symbolic links alone: a link inside the directory (or the directory itself
+        // being reached through one) is only accepted if its target is inside the real directory
+        Path realDir = dir.toRealPath();
+        Path realFile = file.toRealPath();
+        if (!realFile.startsWith(realDir)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File must be inside " + dir);
+        }
+        return realFile;
+    }
+
+    @Override
+    public void destroy() {
+        mappedProcessor.close();
+    }
+
+    private static void feed(CsvRevenueParser parser, DataBuffer buffer) {
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                parser.feed(iterator.next());
+            }
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    public enum LocalMode {
+        MMAP,
+        STREAMING
+    }
+
+    // Blocking path for the servlet stack: reads and writes CHUNK_SIZE at a time on the calling thread
+    public void writeRevenueNdjson(InputStream in, OutputStream out) throws IOException {
+        NdjsonRevenueWriter writer = new NdjsonRevenueWriter();
+        CsvRevenueParser parser = new CsvRevenueParser(writer);
+        byte[] chunk = new byte[CHUNK_SIZE];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            parser.feed(ByteBuffer.wrap(chunk, 0, read));
+            writer.writeTo(out);
+        }
+        parser.finish();
+        writer.writeTo(out);
+        out.flush();
+    }
+
+    // Encodes rows as NDJSON into a reusable byte array without creating a String for the product name
+    static final class NdjsonRevenueWriter implements CsvRevenueParser.RowHandler {
+        private static final byte[] PRODUCT_PREFIX = "{\"product\":\"".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] REVENUE_PREFIX = "\",\"revenue\":".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+        private byte[] bytes = new byte[CHUNK_SIZE];
+        private int length;
+
+        @Override
+        public void onRow(ByteBuffer line, int nameStart, int nameEnd, double price, int quantity) {
+            ensureCapacity(PRODUCT_PREFIX.length + (nameEnd - nameStart) * 6 + REVENUE_PREFIX.length + 32);
+            append(PRODUCT_PREFIX);
+            for (int i = nameStart; i < nameEnd; i++) {
+                byte b = line.get(i);
+                if (b == '"' || b == '\\') {
+                    bytes[length++] = '\\';
+                    bytes[length++] = b;
+                } else if (b >= 0 && b < 0x20) {
+                    bytes[length++] = '\\';
+                    bytes[length++] = 'u';
+                    bytes[length++] = '0';
+                    bytes[length++] = '0';
+                    bytes[length++] = HEX[b >> 4];
+                    bytes[length++] = HEX[b & 0xF];
+                } else {
+                    bytes[length++] = b;
+                }
+            }
+            append(REVENUE_PREFIX);
+            String revenue = Double.toString(price * quantity);
+            for (int i = 0; i < revenue.length(); i++) {
+                bytes[length++] = (byte) revenue.charAt(i);
+            }
+            bytes[length++] = '}';
+            bytes[length++] = '\n';
+        }
+
+        boolean isEmpty() {
+            return length == 0;
+        }
+
+        DataBuffer drain(DataBufferFactory bufferFactory) {
+            DataBuffer buffer = bufferFactory.allocateBuffer(length).write(bytes, 0, length);
+            length = 0;
+            return buffer;
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, length);
+            length = 0;
+        }
+
+        private void append(byte[] value) {
+            System.arraycopy(value, 0, bytes, length, value.length);
+            length += value.length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+}
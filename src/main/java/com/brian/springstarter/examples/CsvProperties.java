@@ -0,0 +1,19 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+// Local CSV processing settings (starter.csv.*)
+@ConfigurationProperties("starter.csv")
+public record CsvProperties(
+        // Only files inside this directory can be processed through /process-csv/local
+        @DefaultValue("data") Path localDir,
+        // Threads used by the memory-mapped mode, 0 means one per available processor
+        @DefaultValue("0") int parallelism) {
+
+    public int effectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
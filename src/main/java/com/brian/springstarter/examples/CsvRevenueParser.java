@@ -0,0 +1,221 @@
+package com.brian.springstarter.examples;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Incremental parser for "product,price,quantity" lines.
+// Works directly on bytes: chunks may split a line anywhere (the tail is carried into the next chunk),
+// nothing is split with a regex and no String is created for a row unless the handler asks for one.
+// Quoted fields are not supported; blank lines are ignored and malformed lines, including those whose
+// price * quantity overflows, are counted and skipped.
+public final class CsvRevenueParser {
+
+    // Receives one parsed row; the product name is the byte range [nameStart, nameEnd) of line
+    @FunctionalInterface
+    public interface RowHandler {
+        void onRow(ByteBuffer line, int nameStart, int nameEnd, double price, int quantity);
+    }
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final RowHandler handler;
+    private byte[] carry = new byte[256];
+    private int carryLength;
+    private long rows;
+    private long skippedRows;
+
+    public CsvRevenueParser(RowHandler handler) {
+        this.handler = handler;
+    }
+
+    // Parses every complete line between chunk's position and limit; a trailing partial line is kept
+    // until the next chunk (or finish()). The chunk is fully consumed afterwards.
+    public void feed(ByteBuffer chunk) {
+        int limit = chunk.limit();
+        int lineStart = chunk.position();
+        if (carryLength > 0) {
+            int newline = indexOf(chunk, lineStart, limit, (byte) '\n');
+            if (newline < 0) {
+                appendCarry(chunk, lineStart, limit);
+                chunk.position(limit);
+                return;
+            }
+            appendCarry(chunk, lineStart, newline);
+            line(ByteBuffer.wrap(carry, 0, carryLength), 0, carryLength);
+            carryLength = 0;
+            lineStart = newline + 1;
+        }
+        int newline;
+        while ((newline = indexOf(chunk, lineStart, limit, (byte) '\n')) >= 0) {
+            line(chunk, lineStart, newline);
+            lineStart = newline + 1;
+        }
+        appendCarry(chunk, lineStart, limit);
+        chunk.position(limit);
+    }
+
+    // Parses a final line that was not terminated by a newline
+    public void finish() {
+        if (carryLength > 0) {
+            line(ByteBuffer.wrap(carry, 0, carryLength), 0, carryLength);
+            carryLength = 0;
+        }
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public long skippedRows() {
+        return skippedRows;
+    }
+
+    private void line(ByteBuffer buffer, int start, int end) {
+        if (parseLine(buffer, start, end, handler)) {
+            rows++;
+        } else if (!isBlank(buffer, start, end)) {
+            skippedRows++;
+        }
+    }
+
+    private void appendCarry(ByteBuffer chunk, int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return;
+        }
+        if (carryLength + length > carry.length) {
+            byte[] grown = new byte[Math.max(carry.length * 2, carryLength + length)];
+            System.arraycopy(carry, 0, grown, 0, carryLength);
+            carry = grown;
+        }
+        chunk.get(from, carry, carryLength, length);
+        carryLength += length;
+    }
+
+    // Parses the line [start, end) of buffer (without the newline); returns false if it is malformed
+    public static boolean parseLine(ByteBuffer buffer, int start, int end, RowHandler handler) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        int firstComma = indexOf(buffer, start, end, (byte) ',');
+        if (firstComma < 0) {
+            return false;
+        }
+        int secondComma = indexOf(buffer, firstComma + 1, end, (byte) ',');
+        if (secondComma < 0) {
+            return false;
+        }
+        double price = parseDouble(buffer, firstComma + 1, secondComma);
+        long quantity = parseInt(buffer, secondComma + 1, end);
+        // A revenue that overflows to infinity would reach every handler as an invalid number
+        if (!Double.isFinite(price) || quantity == Long.MIN_VALUE || !Double.isFinite(price * quantity)) {
+            return false;
+        }
+        handler.onRow(buffer, start, firstComma, price, (int) quantity);
+        return true;
+    }
+
+    public static int indexOf(ByteBuffer buffer, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Plain decimals ("699.99", "-5", "10") are parsed without allocation; for mantissas below 2^53
+    // and at most 22 fraction digits m / 10^n is correctly rounded, i.e. identical to Double.parseDouble.
+    // Anything else (exponents, very long numbers) falls back to Double.parseDouble. Returns NaN if malformed.
+    static double parseDouble(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean dot = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                if (digits == 18) {
+                    return parseDoubleSlow(buffer, start, end);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (dot) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else {
+                return parseDoubleSlow(buffer, start, end);
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        if (mantissa >= MAX_EXACT_MANTISSA || fractionDigits >= POWERS_OF_TEN.length) {
+            return parseDoubleSlow(buffer, start, end);
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private static double parseDoubleSlow(ByteBuffer buffer, int start, int end) {
+        try {
+            return Double.parseDouble(decode(buffer, start, end).trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    // Returns Long.MIN_VALUE if the field is not a valid int
+    static long parseInt(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && buffer.get(i) == '-') {
+            negative = true;
+            i++;
+        }
+        if (i == end || end - i > 10) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + (b - '0');
+        }
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+    }
+
+    public static String decode(ByteBuffer buffer, int start, int end) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,93 @@
+package com.brian.springstarter.examples;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Per-product revenue totals keyed directly by the product name bytes.
+// Open addressing with linear probing; a name is copied (and turned into a String) only once per
+// distinct product, so aggregating millions of rows allocates nothing per row.
+// Not thread-safe: use one instance per thread and merge the results.
+final class CsvRevenueTotals implements CsvRevenueParser.RowHandler {
+
+    private byte[][] keys = new byte[1024][];
+    private int[] hashes = new int[1024];
+    private double[] totals = new double[1024];
+    private int size;
+
+    @Override
+    public void onRow(ByteBuffer line, int nameStart, int nameEnd, double price, int quantity) {
+        int hash = hash(line, nameStart, nameEnd);
+        int mask = keys.length - 1;
+        int slot = hash & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == hash && sameKey(keys[slot], line, nameStart, nameEnd)) {
+                totals[slot] += price * quantity;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        byte[] key = new byte[nameEnd - nameStart];
+        line.get(nameStart, key);
+        keys[slot] = key;
+        hashes[slot] = hash;
+        totals[slot] = price * quantity;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void mergeInto(Map<String, Double> result) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != null) {
+                result.merge(new String(keys[slot], StandardCharsets.UTF_8), totals[slot], Double::sum);
+            }
+        }
+    }
+
+    private static int hash(ByteBuffer line, int start, int end) {
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + line.get(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean sameKey(byte[] key, ByteBuffer line, int start, int end) {
+        if (key.length != end - start) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != line.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        byte[][] oldKeys = keys;
+        int[] oldHashes = hashes;
+        double[] oldTotals = totals;
+        int capacity = oldKeys.length * 2;
+        keys = new byte[capacity][];
+        hashes = new int[capacity];
+        totals = new double[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = oldHashes[i] & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                totals[slot] = oldTotals[i];
+            }
+        }
+    }
+}
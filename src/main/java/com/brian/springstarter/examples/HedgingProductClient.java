@@ -0,0 +1,196 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import com.brian.springstarter.examples.SpringBoot4Features.ProductClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Tail-latency layer in front of the ProductClient proxy, for the idempotent getProduct only.
+// Hedging (opt-in): if the first request has not answered after the configured percentile of recent
+// latencies, a second one is sent; the first value wins and the other request is cancelled. A failed
+// hedge is ignored, a failed first request fails the attempt.
+// Retries: failed attempts are retried with jittered exponential backoff.
+// Every extra request (hedge or retry) takes a token from a shared budget that each call tops up by
+// retry-budget.ratio, so a struggling upstream sees at most that much extra load instead of a retry storm.
+public class HedgingProductClient implements ProductClient {
+
+    private final ProductClient upstream;
+    private final ProductClientProperties.Hedging hedging;
+    private final ProductClientProperties.Retry retry;
+    private final RetryBudget budget;
+    private final LatencyWindow latencies;
+    private final Scheduler timer;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter retries;
+    private final Counter budgetExhausted;
+
+    // timer runs the hedge delays and retry backoffs
+    public HedgingProductClient(ProductClient upstream, ProductClientProperties properties, Scheduler timer,
+                                MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.timer = timer;
+        this.hedging = properties.hedging();
+        this.retry = properties.retry();
+        this.budget = new RetryBudget(properties.retryBudget().ratio(), properties.retryBudget().capacity());
+        this.latencies = new LatencyWindow(hedging);
+        this.hedgesSent = Counter.builder("starter.product-client.hedges").tag("outcome", "sent")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("starter.product-client.hedges").tag("outcome", "won")
+                .register(meterRegistry);
+        this.retries = Counter.builder("starter.product-client.retries").register(meterRegistry);
+        this.budgetExhausted = Counter.builder("starter.product-client.retry-budget.exhausted")
+                .description("Hedges and retries skipped because the budget was empty")
+                .register(meterRegistry);
+        Gauge.builder("starter.product-client.hedge.delay", latencies, window -> window.hedgeDelay().toNanos())
+                .baseUnit("nanoseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Product> getProduct(Long id) {
+        Mono<Product> attempt = hedging.enabled() ? hedged(id) : timed(id);
+        if (retry.maxAttempts() > 0) {
+            attempt = attempt.retryWhen(Retry.backoff(retry.maxAttempts(), retry.minBackoff())
+                    .maxBackoff(retry.maxBackoff())
+                    .jitter(retry.jitter())
+                    .scheduler(timer)
+                    .filter(HedgingProductClient::retryable)
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure())
+                    // Runs once a retry has been decided; without a token the call fails with the last error
+                    .doBeforeRetryAsync(signal -> {
+                        if (!spend()) {
+                            return Mono.error(signal.failure());
+                        }
+                        retries.increment();
+                        return Mono.empty();
+                    }));
+        }
+        return attempt.doOnSubscribe(subscription -> budget.deposit());
+    }
+
+    // Listings are neither hedged nor retried: duplicating a large response costs more than the tail it saves
+    @Override
+    public Flux<Product> getProducts() {
+        return upstream.getProducts();
+    }
+
+    private Mono<Product> hedged(Long id) {
+        return Mono.defer(() -> {
+            Mono<Product> hedge = Mono.delay(latencies.hedgeDelay(), timer)
+                    .filter(tick -> spend())
+                    .flatMap(tick -> {
+                        hedgesSent.increment();
+                        return upstream.getProduct(id);
+                    })
+                    .doOnNext(product -> hedgesWon.increment())
+                    .onErrorResume(e -> Mono.empty());
+            // next() cancels whichever request (or the pending hedge timer) has not answered yet
+            return Flux.merge(timed(id), hedge).next();
+        });
+    }
+
+    private Mono<Product> timed(Long id) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            // A first request cancelled by a winning hedge still counts, with the time it had taken so far,
+            // so the slow tail is not dropped from the window
+            return upstream.getProduct(id).doFinally(signal -> {
+                if (signal != SignalType.ON_ERROR) {
+                    latencies.record(System.nanoTime() - start);
+                }
+            });
+        });
+    }
+
+    private boolean spend() {
+        if (budget.tryWithdraw()) {
+            return true;
+        }
+        budgetExhausted.increment();
+        return false;
+    }
+
+    static boolean retryable(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        // Connect failures, pool acquire timeouts and response timeouts
+        return e instanceof WebClientRequestException;
+    }
+
+    // Token bucket in thousandths of a token: each call deposits ratio, each hedge or retry withdraws one
+    static final class RetryBudget {
+
+        private final long deposit;
+        private final long capacity;
+        private final AtomicLong tokens;
+
+        RetryBudget(double ratio, int capacity) {
+            this.deposit = Math.round(ratio * 1_000);
+            this.capacity = capacity * 1_000L;
+            this.tokens = new AtomicLong(this.capacity);
+        }
+
+        void deposit() {
+            tokens.accumulateAndGet(deposit, (current, added) -> Math.min(capacity, current + added));
+        }
+
+        boolean tryWithdraw() {
+            long current;
+            do {
+                current = tokens.get();
+                if (current < 1_000) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - 1_000));
+            return true;
+        }
+    }
+
+    // The last SIZE successful latencies; the hedge delay is recomputed from them every RECOMPUTE_EVERY samples.
+    // Concurrent writers may overwrite each other's slot, which only drops a sample
+    static final class LatencyWindow {
+
+        private static final int SIZE = 1_000;
+        private static final int RECOMPUTE_EVERY = 100;
+
+        private final long[] samples = new long[SIZE];
+        private final AtomicLong recorded = new AtomicLong();
+        private final ProductClientProperties.Hedging hedging;
+        private volatile Duration hedgeDelay;
+
+        LatencyWindow(ProductClientProperties.Hedging hedging) {
+            this.hedging = hedging;
+            this.hedgeDelay = hedging.maxDelay();
+        }
+
+        void record(long nanos) {
+            long count = recorded.incrementAndGet();
+            samples[(int) ((count - 1) % SIZE)] = nanos;
+            if (count % RECOMPUTE_EVERY == 0) {
+                long[] window = Arrays.copyOf(samples, (int) Math.min(count, SIZE));
+                Arrays.sort(window);
+                long percentile = window[(int) Math.min(window.length - 1, Math.floor(hedging.percentile() * window.length))];
+                long bounded = Math.clamp(percentile, hedging.minDelay().toNanos(), hedging.maxDelay().toNanos());
+                hedgeDelay = Duration.ofNanos(bounded);
+            }
+        }
+
+        Duration hedgeDelay() {
+            return hedgeDelay;
+        }
+    }
+}
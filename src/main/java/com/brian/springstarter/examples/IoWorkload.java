@@ -0,0 +1,246 @@
+package com.brian.springstarter.examples;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+// VirtualThreadPerformanceDemo 的任务负载
+// Thread.sleep 是虚拟线程的最佳情况，其余模式用来观察 pinning、文件IO 和 CPU 竞争下的真实表现
+public enum IoWorkload {
+
+    // 纯 sleep：与原来的 simulateIOOperation 一致
+    SLEEP {
+        @Override
+        long execute(int taskId, Environment env) throws IOException, InterruptedException {
+            Thread.sleep(env.ioDelayMs);
+            return taskId;
+        }
+    },
+
+    // 阻塞 socket 读：连接本机回环 echo 服务器，服务端延迟 ioDelayMs 后回写
+    SOCKET_READ {
+        @Override
+        long execute(int taskId, Environment env) throws IOException {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), env.echoServer.port())) {
+                byte[] request = new byte[LoopbackEchoServer.MESSAGE_SIZE];
+                request[0] = (byte) taskId;
+                socket.getOutputStream().write(request);
+                byte[] response = socket.getInputStream().readNBytes(LoopbackEchoServer.MESSAGE_SIZE);
+                return response.length == 0 ? -1 : response[0];
+            }
+        }
+    },
+
+    // FileChannel 定位读：文件IO在 JDK 21 中会占住载体线程（调度器临时扩容补偿），不受 ioDelayMs 影响
+    FILE_CHANNEL_READ {
+        @Override
+        long execute(int taskId, Environment env) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(Environment.FILE_BLOCK_SIZE);
+            long blocks = Environment.FILE_SIZE / Environment.FILE_BLOCK_SIZE;
+            long checksum = 0;
+            for (int i = 0; i < Environment.FILE_READS_PER_TASK; i++) {
+                long position = ((taskId + (long) i * 7919) % blocks) * Environment.FILE_BLOCK_SIZE;
+                buffer.clear();
+                env.fileChannel.read(buffer, position);
+                checksum += buffer.get(0);
+            }
+            return checksum;
+        }
+    },
+
+    // synchronized 块内阻塞：JDK 21 中虚拟线程持有监视器时会 pin 住载体线程
+    SYNCHRONIZED_PINNING {
+        @Override
+        long execute(int taskId, Environment env) throws InterruptedException {
+            synchronized (env.monitors[taskId % env.monitors.length]) {
+                Thread.sleep(env.ioDelayMs);
+            }
+            return taskId;
+        }
+    },
+
+    // 与 SYNCHRONIZED_PINNING 相同的锁竞争，但使用 ReentrantLock，等待时虚拟线程可以卸载
+    REENTRANT_LOCK {
+        @Override
+        long execute(int taskId, Environment env) throws InterruptedException {
+            ReentrantLock lock = env.locks[taskId % env.locks.length];
+            lock.lock();
+            try {
+                Thread.sleep(env.ioDelayMs);
+            } finally {
+                lock.unlock();
+            }
+            return taskId;
+        }
+    },
+
+    // CPU 计算 + IO 等待：CPU 部分会占满载体线程，观察虚拟线程与平台线程的差异
+    MIXED_CPU_IO {
+        @Override
+        long execute(int taskId, Environment env) throws InterruptedException {
+            long x = taskId + 1;
+            for (int i = 0; i < env.cpuIterations; i++) {
+                x ^= x << 13;
+                x ^= x >>> 7;
+                x ^= x << 17;
+            }
+            Thread.sleep(env.ioDelayMs);
+            return x;
+        }
+    };
+
+    public static final int DEFAULT_LOCK_STRIPES = 1024;
+    public static final int DEFAULT_CPU_ITERATIONS = 1_000_000;
+
+    abstract long execute(int taskId, Environment env) throws IOException, InterruptedException;
+
+    // 执行一次任务，返回是否成功完成；连接被拒、超时等 IO 失败和中断都算失败，由调用方单独计数
+    public boolean run(int taskId, Environment env) {
+        try {
+            execute(taskId, env);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public Environment open(int ioDelayMs) throws IOException {
+        return open(ioDelayMs, DEFAULT_LOCK_STRIPES, DEFAULT_CPU_ITERATIONS);
+    }
+
+    // 只为当前负载准备所需资源（echo 服务器、临时文件、锁），用完需要 close
+    public Environment open(int ioDelayMs, int lockStripes, int cpuIterations) throws IOException {
+        return new Environment(this, ioDelayMs, lockStripes, cpuIterations);
+    }
+
+    // 负载运行环境，可在多轮测试之间复用
+    public static final class Environment implements AutoCloseable {
+        static final int FILE_SIZE = 8 * 1024 * 1024;
+        static final int FILE_BLOCK_SIZE = 4096;
+        static final int FILE_READS_PER_TASK = 16;
+
+        private final IoWorkload workload;
+        private final int ioDelayMs;
+        private final int cpuIterations;
+        private final Object[] monitors;
+        private final ReentrantLock[] locks;
+        private final LoopbackEchoServer echoServer;
+        private final Path file;
+        private final FileChannel fileChannel;
+
+        private Environment(IoWorkload workload, int ioDelayMs, int lockStripes, int cpuIterations) throws IOException {
+            this.workload = workload;
+            this.ioDelayMs = ioDelayMs;
+            this.cpuIterations = cpuIterations;
+            this.monitors = new Object[lockStripes];
+            this.locks = new ReentrantLock[lockStripes];
+            for (int i = 0; i < lockStripes; i++) {
+                monitors[i] = new Object();
+                locks[i] = new ReentrantLock();
+            }
+            this.echoServer = workload == SOCKET_READ ? LoopbackEchoServer.start(ioDelayMs) : null;
+            if (workload == FILE_CHANNEL_READ) {
+                this.file = Files.createTempFile("io-workload", ".bin");
+                byte[] content = new byte[FILE_SIZE];
+                ThreadLocalRandom.current().nextBytes(content);
+                Files.write(file, content);
+                this.fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+            } else {
+                this.file = null;
+                this.fileChannel = null;
+            }
+        }
+
+        public IoWorkload workload() {
+            return workload;
+        }
+
+        public boolean run(int taskId) {
+            return workload.run(taskId, this);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (echoServer != null) {
+                echoServer.close();
+            }
+            if (fileChannel != null) {
+                fileChannel.close();
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // 本机回环 echo 服务器：每个连接一个虚拟线程，读满一条消息后延迟 delayMs 原样写回
+    static final class LoopbackEchoServer implements AutoCloseable {
+        static final int MESSAGE_SIZE = 64;
+
+        private final ServerSocket serverSocket;
+        private final int delayMs;
+
+        private LoopbackEchoServer(ServerSocket serverSocket, int delayMs) {
+            this.serverSocket = serverSocket;
+            this.delayMs = delayMs;
+        }
+
+        static LoopbackEchoServer start(int delayMs) throws IOException {
+            ServerSocket serverSocket = new ServerSocket();
+            serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 16_384);
+            LoopbackEchoServer server = new LoopbackEchoServer(serverSocket, delayMs);
+            Thread.ofPlatform().daemon().name("echo-acceptor").start(server::acceptLoop);
+            return server;
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    Thread.ofVirtual().start(() -> echo(socket));
+                } catch (SocketException e) {
+                    return; // 服务器已关闭
+                } catch (IOException e) {
+                    // 单个连接失败不影响后续 accept
+                }
+            }
+        }
+
+        private void echo(Socket socket) {
+            try (socket; InputStream in = socket.getInputStream(); OutputStream out = socket.getOutputStream()) {
+                byte[] message;
+                while ((message = in.readNBytes(MESSAGE_SIZE)).length == MESSAGE_SIZE) {
+                    Thread.sleep(delayMs);
+                    out.write(message);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // 客户端断开
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.brian.springstarter.examples;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// JDBC pool for the order write path (OrderWriter).
+// Boot's DataSource auto-configuration backs off as soon as an R2DBC ConnectionFactory exists,
+// so the pool is declared here and bound to spring.datasource.hikari.* (jdbc-url, username, maximum-pool-size, ...)
+@Configuration(proxyBeanMethods = false)
+public class JdbcConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource() {
+        return new HikariDataSource();
+    }
+}
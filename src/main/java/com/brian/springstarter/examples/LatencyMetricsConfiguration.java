@@ -0,0 +1,44 @@
+package com.brian.springstarter.examples;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Percentile-histogram buckets for every /api/v4 route (Boot's http.server.requests, one series per uri,
+// method, status and outcome, on either server stack) and for the SSE delivery timers, scraped from
+// /actuator/prometheus. Buckets aggregate across instances, unlike client-side percentiles, and recording
+// into them is a bucket lookup and a counter increment, with nothing allocated per request.
+// Other http.server.requests series (actuator) keep the plain count / sum / max.
+@Configuration(proxyBeanMethods = false)
+public class LatencyMetricsConfiguration {
+
+    static final String SSE_METER_PREFIX = "starter.sse.";
+
+    @Bean
+    public MeterFilter latencyHistograms(LatencyMetricsProperties properties) {
+        DistributionStatisticConfig requests = histogram(properties.requests());
+        DistributionStatisticConfig sse = histogram(properties.sse());
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().equals("http.server.requests")) {
+                    String uri = id.getTag("uri");
+                    return uri != null && uri.startsWith(properties.uriPrefix()) ? requests.merge(config) : config;
+                }
+                return id.getName().startsWith(SSE_METER_PREFIX) ? sse.merge(config) : config;
+            }
+        };
+    }
+
+    // Timer values are in nanoseconds
+    private static DistributionStatisticConfig histogram(LatencyMetricsProperties.Histogram histogram) {
+        return DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .serviceLevelObjectives(histogram.slo().stream().mapToDouble(slo -> slo.toNanos()).toArray())
+                .minimumExpectedValue((double) histogram.minimumExpected().toNanos())
+                .maximumExpectedValue((double) histogram.maximumExpected().toNanos())
+                .build();
+    }
+}
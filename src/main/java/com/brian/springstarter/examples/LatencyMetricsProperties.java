@@ -0,0 +1,25 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+// Latency histograms for the API routes and the SSE streams (starter.metrics.latency.*)
+@ConfigurationProperties("starter.metrics.latency")
+public record LatencyMetricsProperties(
+        // http.server.requests series whose uri starts with this get histogram buckets
+        @DefaultValue("/api/v4") String uriPrefix,
+        @DefaultValue Histogram requests,
+        // starter.sse.first-event and starter.sse.event-gap
+        @DefaultValue Histogram sse) {
+
+    public record Histogram(
+            // Extra bucket boundaries, e.g. the latency targets alerts are written against
+            @DefaultValue({"10ms", "25ms", "50ms", "100ms", "250ms", "500ms", "1s"}) List<Duration> slo,
+            // Range covered by the generated percentile buckets; fewer buckets per series the narrower it is
+            @DefaultValue("1ms") Duration minimumExpected,
+            @DefaultValue("30s") Duration maximumExpected) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.brian.springstarter.examples;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Memory-mapped CSV processing for files already on local disk.
+// The file is cut into chunks on newline boundaries, each chunk is mapped with FileChannel.map and
+// parsed on its own thread into a private CsvRevenueTotals, and the per-chunk totals are merged at the end.
+// (MappedByteBuffer rather than the FFM MemorySegment API, which is still a preview on JDK 21.)
+// The parallelism worker threads are created once and shared by all files; concurrent requests queue for them.
+final class MappedCsvProcessor implements AutoCloseable {
+
+    // A single mapping must stay below 2GB; larger files simply get more chunks than threads
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    private final int parallelism;
+    private final ExecutorService workers;
+
+    MappedCsvProcessor(int parallelism) {
+        this.parallelism = parallelism;
+        this.workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("csv-mmap-", 0).daemon().factory());
+    }
+
+    Map<String, Double> revenueByProduct(Path file) throws IOException {
+        List<Future<CsvRevenueTotals>> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = chunkBoundaries(channel, parallelism);
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                long start = boundaries[i];
+                long length = boundaries[i + 1] - start;
+                if (length > 0) {
+                    chunks.add(workers.submit(() -> processChunk(channel, start, length)));
+                }
+            }
+            Map<String, Double> result = new TreeMap<>();
+            for (Future<CsvRevenueTotals> chunk : chunks) {
+                chunk.get().mergeInto(result);
+            }
+            return result;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException("Failed to process " + file, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing " + file, e);
+        } finally {
+            // Chunks still queued after a failure would only hit the closed channel
+            chunks.forEach(chunk -> chunk.cancel(false));
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    private static CsvRevenueTotals processChunk(FileChannel channel, long start, long length) {
+        try {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            CsvRevenueTotals totals = new CsvRevenueTotals();
+            CsvRevenueParser parser = new CsvRevenueParser(totals);
+            parser.feed(mapped);
+            parser.finish();
+            return totals;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // boundaries[i]..boundaries[i + 1] is chunk i; every boundary except 0 is the start of a line
+    static long[] chunkBoundaries(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        int chunks = (int) Math.max(parallelism, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        long[] boundaries = new long[chunks + 1];
+        for (int i = 1; i < chunks; i++) {
+            boundaries[i] = Math.max(boundaries[i - 1], nextLineStart(channel, size * i / chunks, size));
+        }
+        boundaries[chunks] = size;
+        return boundaries;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        // Start one byte early: if that byte is a newline, position already starts a line
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long offset = position - 1;
+        while (offset < size) {
+            probe.clear();
+            int read = channel.read(probe, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,26 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Order aggregation fan-out settings (starter.orders.*)
+@ConfigurationProperties("starter.orders")
+public record OrderAggregationProperties(
+        // How per-order lookups are fanned out: reactor (flatMap) or virtual-threads (blocking calls)
+        @DefaultValue("reactor") FanOutMode fanOut,
+        // Maximum in-flight downstream calls per request
+        @DefaultValue("16") int maxConcurrency,
+        // Deadline for a single downstream call
+        @DefaultValue("200ms") Duration callTimeout,
+        // Deadline for the whole aggregation
+        @DefaultValue("500ms") Duration deadline,
+        // Extra latency added to every item/price lookup, standing in for remote services
+        @DefaultValue("50ms") Duration simulatedLatency) {
+
+    public enum FanOutMode {
+        REACTOR,
+        VIRTUAL_THREADS
+    }
+}
@@ -0,0 +1,172 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Order;
+import com.brian.springstarter.examples.SpringBoot4Features.OrderItem;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Aggregates a user's orders from the item and pricing services.
+// Lookups are fanned out concurrently so latency tracks the slowest dependency instead of the sum;
+// every call has its own deadline and the first failure cancels all sibling calls.
+@Service
+public class OrderAggregationService {
+
+    // starter.reactor.schedulers.orders: call and request deadlines, and the simulated downstream latency
+    static final String TIMER_SCHEDULER = "orders";
+
+    private final OrderDownstream downstream;
+    private final OrderAggregationProperties properties;
+    private final ResourceGuard itemsGuard;
+    private final ResourceGuard pricingGuard;
+    private final Scheduler timer;
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private final Scheduler virtualThreadScheduler = Schedulers.fromExecutorService(virtualThreads, "order-fan-out");
+
+    public OrderAggregationService(OrderDownstream downstream, OrderAggregationProperties properties,
+                                   ResourceGuards guards, ReactorSchedulers schedulers) {
+        this.downstream = downstream;
+        this.properties = properties;
+        this.itemsGuard = guards.guard("items");
+        this.pricingGuard = guards.guard("pricing");
+        this.timer = schedulers.scheduler(TIMER_SCHEDULER);
+    }
+
+    public Flux<Order> getUserOrders(Long userId) {
+        Mono<List<Order>> orders = switch (properties.fanOut()) {
+            case REACTOR -> aggregateReactive(userId);
+            case VIRTUAL_THREADS -> Mono.fromCallable(() -> aggregateOnVirtualThreads(userId))
+                    .subscribeOn(virtualThreadScheduler);
+        };
+        return orders.timeout(properties.deadline(), timer).flatMapIterable(list -> list);
+    }
+
+    // Reactor mode: bounded flatMapSequential keeps the original order while running lookups concurrently.
+    // Item lookups for all orders finish before the price lookups for all items start, each stage under one
+    // flatMapSequential, so at most maxConcurrency calls are in flight per request, as in virtual-thread mode.
+    // An error in any inner publisher cancels the remaining ones.
+    private Mono<List<Order>> aggregateReactive(Long userId) {
+        int concurrency = properties.maxConcurrency();
+        Duration callTimeout = properties.callTimeout();
+        return downstream.orderIds(userId)
+                .flatMapMany(Flux::fromIterable)
+                .flatMapSequential(orderId -> downstream.items(orderId)
+                        .timeout(callTimeout, timer)
+                        .map(items -> new UnpricedOrder(orderId, items)), concurrency)
+                .collectList()
+                .flatMap(orders -> Flux.fromIterable(orders)
+                        .concatMapIterable(UnpricedOrder::items)
+                        .flatMapSequential(item -> downstream.price(item.productId())
+                                .timeout(callTimeout, timer)
+                                .map(price -> new OrderItem(item.productId(), item.quantity(), price)), concurrency)
+                        .collectList()
+                        .map(priced -> regroup(userId, orders, priced)));
+    }
+
+    private record UnpricedOrder(long id, List<OrderItem> items) {
+    }
+
+    // Priced items arrive in the order the orders listed them
+    private static List<Order> regroup(Long userId, List<UnpricedOrder> orders, List<OrderItem> priced) {
+        List<Order> result = new ArrayList<>(orders.size());
+        int from = 0;
+        for (UnpricedOrder unpriced : orders) {
+            int to = from + unpriced.items().size();
+            result.add(order(unpriced.id(), userId, List.copyOf(priced.subList(from, to))));
+            from = to;
+        }
+        return result;
+    }
+
+    // Virtual-thread mode: plain blocking calls, one virtual thread per call.
+    // Shaped like StructuredTaskScope.ShutdownOnFailure, which is still a preview API on JDK 21.
+    // The per-request semaphore bounds one request's fan-out; the resource guards bound all requests
+    // together, so a burst of requests cannot put more calls on a downstream than it can take.
+    private List<Order> aggregateOnVirtualThreads(Long userId) throws Exception {
+        Semaphore permits = new Semaphore(properties.maxConcurrency());
+        List<Callable<Order>> orders = downstream.orderIdsBlocking(userId).stream()
+                .<Callable<Order>>map(orderId -> () -> loadOrder(userId, orderId, permits))
+                .toList();
+        return invokeAll(orders, properties.deadline());
+    }
+
+    private Order loadOrder(Long userId, long orderId, Semaphore permits) throws Exception {
+        Duration callTimeout = properties.callTimeout();
+        List<OrderItem> items = invokeAll(List.of(bounded(permits,
+                () -> itemsGuard.call(() -> downstream.itemsBlocking(orderId)))), callTimeout).getFirst();
+        List<OrderItem> priced = invokeAll(items.stream()
+                .map(item -> bounded(permits, () -> new OrderItem(item.productId(), item.quantity(),
+                        pricingGuard.call(() -> downstream.priceBlocking(item.productId())))))
+                .toList(), callTimeout);
+        return order(orderId, userId, priced);
+    }
+
+    private static <T> Callable<T> bounded(Semaphore permits, Callable<T> call) {
+        return () -> {
+            permits.acquire();
+            try {
+                return call.call();
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    // Forks every task on its own virtual thread and joins them in submission order.
+    // Completion is observed in completion order, so the first failure or the deadline
+    // cancels (interrupts) all siblings that are still running.
+    private <T> List<T> invokeAll(List<Callable<T>> tasks, Duration timeout) throws Exception {
+        CompletionService<T> completion = new ExecutorCompletionService<>(virtualThreads);
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(completion.submit(task));
+            }
+            long deadline = System.nanoTime() + timeout.toNanos();
+            for (int i = 0; i < tasks.size(); i++) {
+                Future<T> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new TimeoutException("Downstream call did not complete within " + timeout);
+                }
+                done.get();
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.resultNow());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static Order order(long orderId, Long userId, List<OrderItem> items) {
+        double total = items.stream().mapToDouble(item -> item.price() * item.quantity()).sum();
+        return new Order(orderId, userId, items, total);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        virtualThreadScheduler.dispose();
+        virtualThreads.close();
+    }
+}
@@ -0,0 +1,69 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.OrderItem;
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import com.brian.springstarter.examples.SpringBoot4Features.ProductService;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Downstreams behind getUserOrders: the order index and the items come from the order tables,
+// prices from the product cache (backed by the product table).
+// starter.orders.simulated-latency is added to every item/price lookup to stand in for a remote
+// service; set it to 0 to measure the database alone. Both reactive and blocking flavours are offered
+// so the two fan-out modes pay exactly the same latency.
+@Component
+public class OrderDownstream {
+
+    private final OrderRepository orders;
+    private final ProductService products;
+    private final Duration latency;
+    private final Scheduler timer;
+
+    public OrderDownstream(OrderRepository orders, ProductService products, OrderAggregationProperties properties,
+                           ReactorSchedulers schedulers) {
+        this.orders = orders;
+        this.products = products;
+        this.latency = properties.simulatedLatency();
+        this.timer = schedulers.scheduler(OrderAggregationService.TIMER_SCHEDULER);
+    }
+
+    public Mono<List<Long>> orderIds(Long userId) {
+        return orders.findOrderIds(userId);
+    }
+
+    // The blocking flavours run on virtual threads: block() parks the virtual thread while the
+    // R2DBC driver does the I/O, so no carrier thread is held
+    public List<Long> orderIdsBlocking(Long userId) {
+        return orderIds(userId).block();
+    }
+
+    // Items come back unpriced; the pricing lookup fills in the price
+    public Mono<List<OrderItem>> items(long orderId) {
+        return orders.findItems(orderId).delayElement(latency, timer);
+    }
+
+    public List<OrderItem> itemsBlocking(long orderId) throws InterruptedException {
+        Thread.sleep(latency);
+        return orders.findItems(orderId).block();
+    }
+
+    public Mono<Double> price(long productId) {
+        return priceOf(productId).delayElement(latency, timer);
+    }
+
+    public double priceBlocking(long productId) throws InterruptedException {
+        Thread.sleep(latency);
+        return priceOf(productId).block();
+    }
+
+    private Mono<Double> priceOf(long productId) {
+        return products.getProduct(productId)
+                .map(Product::price)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Unknown product " + productId)));
+    }
+}
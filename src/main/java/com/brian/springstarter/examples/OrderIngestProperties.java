@@ -0,0 +1,21 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Write coalescing for POST /api/v4/orders (starter.order-ingest.*)
+@ConfigurationProperties("starter.order-ingest")
+public record OrderIngestProperties(
+        // A batch is flushed once it holds this many orders...
+        @DefaultValue("500") int batchSize,
+        // ...or once its first order has waited this long
+        @DefaultValue("5ms") Duration maxDelay,
+        // Batches written concurrently; more than the mysql guard allows just queue on the guard
+        @DefaultValue("4") int maxConcurrentBatches,
+        // Orders accepted but not yet written; beyond this new requests get 503
+        @DefaultValue("20000") int maxPending,
+        // Statement shape used for a batch: multi-row | jdbc-batch | single-row
+        @DefaultValue("multi-row") OrderWriter.WriteMode writeMode) {
+}
@@ -0,0 +1,203 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Order;
+import com.brian.springstarter.examples.SpringBoot4Features.OrderItem;
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import com.brian.springstarter.examples.SpringBoot4Features.ProductService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Coalesces orders from all concurrent requests into micro-batches and writes each batch in one
+// transaction (OrderWriter). A batch is cut when it reaches batch-size orders or when its first order
+// has waited max-delay, so a lone order pays at most max-delay and a busy endpoint pays one round trip
+// per batch instead of one per row. Every order gets its own acknowledgement once its batch commits.
+@Service
+public class OrderIngestService {
+
+    public record OrderAck(Long orderId, Long userId, double total, Status status, String error) {
+
+        public enum Status {
+            STORED,
+            FAILED
+        }
+    }
+
+    private record PendingOrder(Order order, CompletableFuture<OrderAck> ack) {
+    }
+
+    private final OrderWriter writer;
+    private final ProductService productService;
+    private final OrderIngestProperties properties;
+    private final ResourceGuard mysqlGuard;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final DistributionSummary batchSizes;
+    private final Counter stored;
+    private final Counter failed;
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private final Scheduler writeScheduler = Schedulers.fromExecutorService(virtualThreads, "order-ingest");
+    private final Disposable pipeline;
+    private FluxSink<PendingOrder> queue;
+
+    public OrderIngestService(OrderWriter writer, ProductService productService, OrderIngestProperties properties,
+                              ResourceGuards guards, MeterRegistry meterRegistry) {
+        this.writer = writer;
+        this.productService = productService;
+        this.properties = properties;
+        this.mysqlGuard = guards.guard("mysql");
+        Gauge.builder("starter.orders.ingest.pending", pending, AtomicInteger::get)
+                .description("Orders accepted but not yet written")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("starter.orders.ingest.batch.size")
+                .description("Orders per coalesced write")
+                .register(meterRegistry);
+        this.stored = Counter.builder("starter.orders.ingest.orders").tag("outcome", "stored").register(meterRegistry);
+        this.failed = Counter.builder("starter.orders.ingest.orders").tag("outcome", "failed").register(meterRegistry);
+        // Flux.create serializes next() calls from concurrent requests; the sink is handed over during subscribe().
+        // fairBackpressure makes bufferTimeout wait for a free write slot instead of overflowing
+        this.pipeline = Flux.<PendingOrder>create(sink -> this.queue = sink)
+                .bufferTimeout(properties.batchSize(), properties.maxDelay(), true)
+                .flatMap(batch -> Mono.fromRunnable(() -> write(batch)).subscribeOn(writeScheduler),
+                        properties.maxConcurrentBatches())
+                .subscribe();
+    }
+
+    // Acknowledgements are emitted in request order. Orders are queued on subscription and are written
+    // even if the caller goes away before its acknowledgements arrive.
+    public Flux<OrderAck> ingest(List<Order> orders) {
+        return Flux.defer(() -> {
+            orders.forEach(OrderIngestService::validate);
+            return catalogPrices(orders).flatMapMany(prices -> enqueue(orders, prices));
+        });
+    }
+
+    private Flux<OrderAck> enqueue(List<Order> orders, Map<Long, Double> prices) {
+        if (pending.addAndGet(orders.size()) > properties.maxPending()) {
+            pending.addAndGet(-orders.size());
+            return Flux.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Order ingestion is saturated, " + properties.maxPending() + " orders pending"));
+        }
+        List<CompletableFuture<OrderAck>> acks = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            PendingOrder entry = new PendingOrder(priced(order, prices), new CompletableFuture<>());
+            acks.add(entry.ack());
+            queue.next(entry);
+        }
+        return Flux.fromIterable(acks).concatMap(Mono::fromFuture);
+    }
+
+    // Looked up through the product cache. An unknown product rejects the whole request before any of its
+    // orders is queued: it would be stored, and every later read of the user's orders would fail on it
+    private Mono<Map<Long, Double>> catalogPrices(List<Order> orders) {
+        Set<Long> productIds = orders.stream()
+                .flatMap(order -> order.items().stream())
+                .map(OrderItem::productId)
+                .collect(Collectors.toSet());
+        return Flux.fromIterable(productIds)
+                .flatMap(productService::getProduct)
+                .collectMap(Product::id, Product::price)
+                .flatMap(prices -> {
+                    if (prices.size() < productIds.size()) {
+                        Set<Long> unknown = new HashSet<>(productIds);
+                        unknown.removeAll(prices.keySet());
+                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                "Unknown products " + unknown));
+                    }
+                    return Mono.just(prices);
+                });
+    }
+
+    private void write(List<PendingOrder> batch) {
+        batchSizes.record(batch.size());
+        try {
+            store(batch);
+        } catch (ResourceBusyException e) {
+            batch.forEach(entry -> fail(entry, e));
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                fail(batch.getFirst(), e);
+                return;
+            }
+            // One bad order must not fail the rest of the batch: retry them one by one
+            for (PendingOrder entry : batch) {
+                try {
+                    store(List.of(entry));
+                } catch (Exception single) {
+                    fail(entry, single);
+                }
+            }
+        } finally {
+            pending.addAndGet(-batch.size());
+        }
+    }
+
+    private void store(List<PendingOrder> batch) throws Exception {
+        mysqlGuard.call(() -> {
+            writer.write(batch.stream().map(PendingOrder::order).toList(), properties.writeMode());
+            return null;
+        });
+        for (PendingOrder entry : batch) {
+            stored.increment();
+            entry.ack().complete(new OrderAck(entry.order().id(), entry.order().userId(), entry.order().total(),
+                    OrderAck.Status.STORED, null));
+        }
+    }
+
+    private void fail(PendingOrder entry, Exception e) {
+        failed.increment();
+        entry.ack().complete(new OrderAck(entry.order().id(), entry.order().userId(), entry.order().total(),
+                OrderAck.Status.FAILED, e.getMessage()));
+    }
+
+    // The id is assigned here. Items are priced from the catalog, whatever price the client sent, so the stored
+    // total is the one OrderAggregationService computes when the order is read back
+    private Order priced(Order order, Map<Long, Double> prices) {
+        List<OrderItem> items = order.items().stream()
+                .map(item -> new OrderItem(item.productId(), item.quantity(), prices.get(item.productId())))
+                .toList();
+        double total = items.stream().mapToDouble(item -> item.price() * item.quantity()).sum();
+        return new Order(writer.nextOrderId(), order.userId(), items, total);
+    }
+
+    private static void validate(Order order) {
+        if (order.userId() == null || order.items() == null || order.items().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "An order needs a userId and at least one item");
+        }
+        Set<Long> products = new HashSet<>();
+        for (OrderItem item : order.items()) {
+            if (item.productId() == null || item.quantity() <= 0 || !products.add(item.productId())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Items need a productId, a positive quantity and must not repeat a product");
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pipeline.dispose();
+        writeScheduler.dispose();
+        virtualThreads.close();
+    }
+}
@@ -0,0 +1,40 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.OrderItem;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Order and order item rows over R2DBC. Items are stored without a price; getUserOrders prices them
+// at the current product price.
+@Repository
+public class OrderRepository {
+
+    static final String FIND_ORDER_IDS = "SELECT id FROM orders WHERE user_id = :userId ORDER BY id";
+    static final String FIND_ITEMS = "SELECT product_id, quantity FROM order_items WHERE order_id = :orderId"
+            + " ORDER BY product_id";
+
+    private final DatabaseClient db;
+
+    public OrderRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    public Mono<List<Long>> findOrderIds(long userId) {
+        return db.sql(FIND_ORDER_IDS)
+                .bind("userId", userId)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collectList();
+    }
+
+    public Mono<List<OrderItem>> findItems(long orderId) {
+        return db.sql(FIND_ITEMS)
+                .bind("orderId", orderId)
+                .map(row -> new OrderItem(row.get("product_id", Long.class), row.get("quantity", Integer.class), 0.0))
+                .all()
+                .collectList();
+    }
+}
@@ -0,0 +1,164 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Order;
+import com.brian.springstarter.examples.SpringBoot4Features.OrderItem;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Blocking JDBC write path for new orders; each write(...) call is one transaction.
+// Reads stay on R2DBC (OrderRepository), writes go through JDBC because batching (executeBatch, and
+// rewriteBatchedStatements on MySQL Connector/J) and multi-row VALUES lists are plain JDBC features.
+// Meant to be called from virtual threads.
+@Repository
+@DependsOnDatabaseInitialization
+public class OrderWriter {
+
+    public enum WriteMode {
+        // One INSERT ... VALUES (...), (...), ... per table and chunk of rows
+        MULTI_ROW,
+        // One prepared single-row INSERT, rows added with addBatch() and sent with executeBatch()
+        JDBC_BATCH,
+        // One executeUpdate() round trip per row (the baseline)
+        SINGLE_ROW
+    }
+
+    // Keeps a statement under MySQL's 65,535 placeholder limit and well under max_allowed_packet
+    static final int MAX_ROWS_PER_STATEMENT = 1_000;
+
+    private static final String ORDER_COLUMNS = "INSERT INTO orders (id, user_id, total) VALUES ";
+    private static final String ITEM_COLUMNS = "INSERT INTO order_items (order_id, product_id, quantity) VALUES ";
+    private static final String ROW = "(?, ?, ?)";
+
+    private final DataSource dataSource;
+    private final AtomicLong lastOrderId;
+
+    public OrderWriter(DataSource dataSource) throws SQLException {
+        this.dataSource = dataSource;
+        this.lastOrderId = new AtomicLong(maxOrderId());
+    }
+
+    // Ids come from this process only (seeded from MAX(id) at startup), which is enough for a single
+    // writer instance; several instances would need a shared sequence or ranges handed out by the database
+    public long nextOrderId() {
+        return lastOrderId.incrementAndGet();
+    }
+
+    // Orders must already carry their id (nextOrderId()); all rows commit or none do
+    public void write(List<Order> orders, WriteMode mode) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                switch (mode) {
+                    case MULTI_ROW -> writeMultiRow(connection, orders);
+                    case JDBC_BATCH -> writeJdbcBatch(connection, orders);
+                    case SINGLE_ROW -> writeSingleRows(connection, orders);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static void writeMultiRow(Connection connection, List<Order> orders) throws SQLException {
+        for (int from = 0; from < orders.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Order> chunk = orders.subList(from, Math.min(orders.size(), from + MAX_ROWS_PER_STATEMENT));
+            try (PreparedStatement statement = connection.prepareStatement(multiRow(ORDER_COLUMNS, chunk.size()))) {
+                int parameter = 1;
+                for (Order order : chunk) {
+                    statement.setLong(parameter++, order.id());
+                    statement.setLong(parameter++, order.userId());
+                    statement.setDouble(parameter++, order.total());
+                }
+                statement.executeUpdate();
+            }
+        }
+        List<long[]> items = orders.stream()
+                .flatMap(order -> order.items().stream()
+                        .map(item -> new long[] {order.id(), item.productId(), item.quantity()}))
+                .toList();
+        for (int from = 0; from < items.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<long[]> chunk = items.subList(from, Math.min(items.size(), from + MAX_ROWS_PER_STATEMENT));
+            try (PreparedStatement statement = connection.prepareStatement(multiRow(ITEM_COLUMNS, chunk.size()))) {
+                int parameter = 1;
+                for (long[] item : chunk) {
+                    statement.setLong(parameter++, item[0]);
+                    statement.setLong(parameter++, item[1]);
+                    statement.setInt(parameter++, (int) item[2]);
+                }
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private static void writeJdbcBatch(Connection connection, List<Order> orders) throws SQLException {
+        try (PreparedStatement orderInsert = connection.prepareStatement(ORDER_COLUMNS + ROW);
+             PreparedStatement itemInsert = connection.prepareStatement(ITEM_COLUMNS + ROW)) {
+            for (Order order : orders) {
+                bindOrder(orderInsert, order);
+                orderInsert.addBatch();
+                for (OrderItem item : order.items()) {
+                    bindItem(itemInsert, order, item);
+                    itemInsert.addBatch();
+                }
+            }
+            orderInsert.executeBatch();
+            itemInsert.executeBatch();
+        }
+    }
+
+    private static void writeSingleRows(Connection connection, List<Order> orders) throws SQLException {
+        try (PreparedStatement orderInsert = connection.prepareStatement(ORDER_COLUMNS + ROW);
+             PreparedStatement itemInsert = connection.prepareStatement(ITEM_COLUMNS + ROW)) {
+            for (Order order : orders) {
+                bindOrder(orderInsert, order);
+                orderInsert.executeUpdate();
+                for (OrderItem item : order.items()) {
+                    bindItem(itemInsert, order, item);
+                    itemInsert.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private static void bindOrder(PreparedStatement statement, Order order) throws SQLException {
+        statement.setLong(1, order.id());
+        statement.setLong(2, order.userId());
+        statement.setDouble(3, order.total());
+    }
+
+    private static void bindItem(PreparedStatement statement, Order order, OrderItem item) throws SQLException {
+        statement.setLong(1, order.id());
+        statement.setLong(2, item.productId());
+        statement.setInt(3, item.quantity());
+    }
+
+    static String multiRow(String insert, int rows) {
+        StringBuilder sql = new StringBuilder(insert.length() + rows * (ROW.length() + 2)).append(insert);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(ROW);
+        }
+        return sql.toString();
+    }
+
+    private long maxOrderId() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet max = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM orders")) {
+            max.next();
+            return max.getLong(1);
+        }
+    }
+}
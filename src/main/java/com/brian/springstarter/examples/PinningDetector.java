@@ -0,0 +1,132 @@
+package com.brian.springstarter.examples;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// 进程内虚拟线程 pinning 探测器
+// 通过 JFR RecordingStream 订阅 jdk.VirtualThreadPinned / jdk.VirtualThreadSubmitFailed 事件，
+// 按调用栈聚合 pinning 次数和总时长
+public final class PinningDetector implements AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+    private static final int STACK_DEPTH = 8; // 聚合时只取栈顶若干帧（跳过 VirtualThread 内部的 park 帧）
+
+    private final RecordingStream stream = new RecordingStream();
+    private final Map<String, PinnedSite> sites = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> submitFailures = new ConcurrentHashMap<>();
+
+    private PinningDetector(Duration threshold) {
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.enable(SUBMIT_FAILED_EVENT).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.onEvent(SUBMIT_FAILED_EVENT, this::onSubmitFailed);
+    }
+
+    // threshold：只记录持续时间不少于该值的 pinning（JFR 默认 20ms）
+    public static PinningDetector start(Duration threshold) {
+        PinningDetector detector = new PinningDetector(threshold);
+        detector.stream.startAsync();
+        return detector;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        sites.computeIfAbsent(stackKey(event.getStackTrace()), PinnedSite::new)
+                .record(event.getDuration());
+    }
+
+    private void onSubmitFailed(RecordedEvent event) {
+        submitFailures.computeIfAbsent(stackKey(event.getStackTrace()), key -> new LongAdder()).increment();
+    }
+
+    private static String stackKey(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "<no stack trace>";
+        }
+        return stackTrace.getFrames().stream()
+                .dropWhile(frame -> frame.getMethod().getType().getName().equals("java.lang.VirtualThread"))
+                .limit(STACK_DEPTH)
+                .map(PinningDetector::formatFrame)
+                .collect(Collectors.joining("\n    at ", "    at ", ""));
+    }
+
+    private static String formatFrame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + "(line " + frame.getLineNumber() + ")";
+    }
+
+    // 停止录制并返回报告；stop() 会先把已缓冲的事件全部交给回调
+    public Report stop() {
+        stream.stop();
+        List<PinnedSite> sorted = sites.values().stream()
+                .sorted(Comparator.comparing(PinnedSite::totalPinned).reversed())
+                .toList();
+        long failures = submitFailures.values().stream().mapToLong(LongAdder::sum).sum();
+        return new Report(sorted, failures);
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    // 单个调用栈的 pinning 统计
+    public static final class PinnedSite {
+        private final String stack;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        private PinnedSite(String stack) {
+            this.stack = stack;
+        }
+
+        private void record(Duration duration) {
+            count.increment();
+            totalNanos.add(duration.toNanos());
+        }
+
+        public String stack() {
+            return stack;
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public Duration totalPinned() {
+            return Duration.ofNanos(totalNanos.sum());
+        }
+    }
+
+    public record Report(List<PinnedSite> sites, long submitFailures) {
+        public long pinnedCount() {
+            return sites.stream().mapToLong(PinnedSite::count).sum();
+        }
+
+        public Duration totalPinned() {
+            return Duration.ofNanos(sites.stream().mapToLong(site -> site.totalPinned().toNanos()).sum());
+        }
+
+        public void print() {
+            System.out.println("=== 📌 虚拟线程 Pinning 报告 ===");
+            System.out.printf("pinning 次数: %,d, 总 pinned 时长: %d ms, 提交失败: %,d\n",
+                    pinnedCount(), totalPinned().toMillis(), submitFailures);
+            for (PinnedSite site : sites) {
+                System.out.printf("\n%,d 次, 共 %d ms, 平均 %.1f ms\n%s\n",
+                        site.count(), site.totalPinned().toMillis(),
+                        site.totalPinned().toNanos() / 1e6 / site.count(), site.stack());
+            }
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Fan-out endpoints served from pre-encoded SSE frames (starter.stream.pre-serialized=true, reactive stack only).
+// Each event is serialized once per tick instead of once per connection, see SseFrameEncoder.
+// The frame streams read the object streams through bridges, which the products and notifications meters
+// do not count; clients here are counted on products-frames and notifications-frames.
+// Router functions are consulted before annotated controllers, so these routes shadow the
+// /products/stream and /notifications mappings in SpringBoot4Features.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnBooleanProperty("starter.stream.pre-serialized")
+public class PreSerializedStreamConfiguration {
+
+    @Bean
+    public SseFrameEncoder sseFrameEncoder(ServerCodecConfigurer codecs) {
+        return new SseFrameEncoder(codecs);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public BroadcastStream<byte[]> productFrames(BroadcastStream<Product> productBroadcast, SseFrameEncoder encoder,
+                                                 StreamProperties properties, MeterRegistry meterRegistry) {
+        return StreamConfiguration.broadcast("products-frames",
+                encoder.encode(productBroadcast.bridge()), properties, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public BroadcastStream<byte[]> notificationFrames(BroadcastStream<String> notificationBroadcast,
+                                                      SseFrameEncoder encoder, StreamProperties properties,
+                                                      MeterRegistry meterRegistry) {
+        return StreamConfiguration.broadcast("notifications-frames",
+                encoder.encode(notificationBroadcast.bridge()), properties, meterRegistry);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> preSerializedStreams(SseFrameEncoder encoder,
+                                                               BroadcastStream<byte[]> productFrames,
+                                                               BroadcastStream<byte[]> notificationFrames) {
+        return RouterFunctions.route()
+                .GET("/api/v4/products/stream", request -> eventStream(encoder.subscribe(productFrames)))
+                .GET("/api/v4/notifications", request -> eventStream(encoder.subscribe(notificationFrames)))
+                .build();
+    }
+
+    private static Mono<ServerResponse> eventStream(Flux<DataBuffer> frames) {
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(BodyInserters.fromDataBuffers(frames));
+    }
+}
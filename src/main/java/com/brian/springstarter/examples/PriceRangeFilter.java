@@ -0,0 +1,15 @@
+package com.brian.springstarter.examples;
+
+// Selects the rows of a price column with minPrice <= price <= maxPrice. The selection is a bitmap:
+// row r is selected when bit (r & 63) of word (r >>> 6) is set. Rows past size are never selected.
+public interface PriceRangeFilter {
+
+    long[] select(double[] prices, int size, double minPrice, double maxPrice);
+
+    // The Vector API filter when the JVM runs with --add-modules jdk.incubator.vector, otherwise the scalar one
+    static PriceRangeFilter available() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                ? new VectorPriceRangeFilter()
+                : new ScalarPriceRangeFilter();
+    }
+}
@@ -0,0 +1,97 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Catalog totals for getProductAnalytics, maintained incrementally instead of recomputed per request.
+// Seeded from the products table once, then moved by ProductService on every insert, update and delete.
+// Updates are deltas (remove the old version, add the new one), so they commute and may be applied in any
+// order across concurrent writers. The counters are not updated atomically together; a Snapshot is the
+// consistent view.
+// Seeding is a reactive read started when the application is ready (or by whoever needs it first), never a
+// blocking call on the thread creating the bean. ProductService waits for ready() before writing, so the
+// seeding scan cannot see a write whose delta is also applied.
+@Component
+public class ProductAnalytics {
+
+    private static final Duration FOREVER = Duration.ofMillis(Long.MAX_VALUE);
+
+    // Immutable view of the totals; version grows with every change applied
+    public record Snapshot(long version, long totalProducts, double totalValue, List<String> categories) {
+    }
+
+    private final LongAdder totalProducts = new LongAdder();
+    private final DoubleAdder totalValue = new DoubleAdder();
+    // Category -> number of products in it; a category disappears when its count drops to zero
+    private final ConcurrentHashMap<String, Long> categories = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+    // Completes once the seed has been applied; a failed seed applied nothing and is retried by the next caller
+    private final Mono<Void> seeded;
+
+    public ProductAnalytics(ProductRepository productRepository) {
+        this.seeded = productRepository.findAll()
+                .collectList()
+                .doOnNext(products -> products.forEach(this::added))
+                .then()
+                .cache(done -> FOREVER, error -> Duration.ZERO, () -> FOREVER);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        seeded.subscribe();
+    }
+
+    public Mono<Void> ready() {
+        return seeded;
+    }
+
+    public void added(Product product) {
+        totalProducts.increment();
+        totalValue.add(product.price());
+        categories.merge(product.category(), 1L, ProductAnalytics::count);
+        version.incrementAndGet();
+    }
+
+    public void removed(Product product) {
+        totalProducts.decrement();
+        totalValue.add(-product.price());
+        categories.merge(product.category(), -1L, ProductAnalytics::count);
+        version.incrementAndGet();
+    }
+
+    // Re-taken only when something changed since the previous snapshot, otherwise the same instance is
+    // returned. The version is read first, so a snapshot never claims a newer version than its totals reflect
+    public Snapshot snapshot() {
+        long current = version.get();
+        Snapshot last = snapshot;
+        if (last != null && last.version() == current) {
+            return last;
+        }
+        // Counts can dip below zero for a moment when a removal is applied before the matching addition
+        List<String> present = categories.entrySet().stream()
+                .filter(category -> category.getValue() > 0)
+                .map(category -> category.getKey())
+                .sorted()
+                .toList();
+        Snapshot fresh = new Snapshot(current, totalProducts.sum(), totalValue.sum(), present);
+        snapshot = fresh;
+        return fresh;
+    }
+
+    // Returning null removes the mapping, so categories without products do not pile up
+    private static Long count(Long current, Long delta) {
+        long sum = current + delta;
+        return sum == 0 ? null : sum;
+    }
+}
@@ -0,0 +1,17 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Product cache settings (starter.products.cache.*)
+@ConfigurationProperties("starter.products.cache")
+public record ProductCacheProperties(
+        // Maximum number of cached products before size-based eviction
+        @DefaultValue("10000") long maximumSize,
+        // Entries older than this are evicted and reloaded on the next request
+        @DefaultValue("10m") Duration expireAfterWrite,
+        // Entries older than this are reloaded in the background while the stale value is still served
+        @DefaultValue("1m") Duration refreshAfterWrite) {
+}
@@ -0,0 +1,82 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.ProductClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.support.WebClientAdapter;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+import reactor.netty.http.Http2AllocationStrategy;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+// ProductClient proxy over a dedicated Reactor Netty connection pool (starter.product-client.*).
+// The pool publishes reactor.netty.connection.provider.* meters tagged name=product-client to the global
+// Micrometer registry, which actuator exposes: total/active/idle/pending connections, max connections, the
+// time requests wait for a connection (pending.connections.time) and, for HTTP/2, active/pending streams.
+// Only active once starter.product-client.base-url points at an upstream.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("starter.product-client.base-url")
+public class ProductClientConfiguration {
+
+    static final String POOL_NAME = "product-client";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider productClientConnections(ProductClientProperties properties) {
+        ConnectionProvider.Builder pool = ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.maxConnections())
+                .pendingAcquireMaxCount(properties.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.pendingAcquireTimeout())
+                .maxIdleTime(properties.maxIdleTime())
+                .metrics(true);
+        if (multiplexed(properties.protocol())) {
+            pool.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(properties.maxConnections())
+                    .maxConcurrentStreams(properties.maxConcurrentStreams())
+                    .build());
+        }
+        return pool.build();
+    }
+
+    // Exported as starter.circuit.* with breaker=product-client
+    @Bean
+    public CircuitBreaker productClientCircuitBreaker(ProductClientProperties properties, MeterRegistry meterRegistry) {
+        return new CircuitBreaker(POOL_NAME, properties.circuitBreaker(),
+                CircuitBreakingProductClient::recordAsFailure, meterRegistry);
+    }
+
+    // The proxy wrapped in the hedging / retry layer (HedgingProductClient), and that in the bulkhead
+    // (starter.guards.resources.product-client) and circuit breaker (CircuitBreakingProductClient)
+    @Bean
+    public ProductClient productClient(ConnectionProvider productClientConnections, ProductClientProperties properties,
+                                       WebClient.Builder webClientBuilder, ResourceGuards guards,
+                                       CircuitBreaker productClientCircuitBreaker, ReactorSchedulers schedulers,
+                                       MeterRegistry meterRegistry) {
+        HttpClient httpClient = HttpClient.create(productClientConnections)
+                .protocol(properties.protocol())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis())
+                .responseTimeout(properties.responseTimeout());
+        if (properties.protocol() == HttpProtocol.H2 || properties.baseUrl().startsWith("https:")) {
+            httpClient = httpClient.secure();
+        }
+        WebClient webClient = webClientBuilder.clone()
+                .baseUrl(properties.baseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        ProductClient proxy = HttpServiceProxyFactory.builderFor(WebClientAdapter.create(webClient))
+                .build()
+                .createClient(ProductClient.class);
+        HedgingProductClient hedging = new HedgingProductClient(proxy, properties, schedulers.scheduler(POOL_NAME),
+                meterRegistry);
+        return new CircuitBreakingProductClient(hedging, guards.guard(POOL_NAME), productClientCircuitBreaker);
+    }
+
+    private static boolean multiplexed(HttpProtocol protocol) {
+        return protocol == HttpProtocol.H2 || protocol == HttpProtocol.H2C;
+    }
+}
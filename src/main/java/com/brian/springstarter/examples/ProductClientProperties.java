@@ -0,0 +1,61 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+
+// Upstream product service behind ProductClient (starter.product-client.*)
+@ConfigurationProperties("starter.product-client")
+public record ProductClientProperties(
+        // Scheme, host and port; ProductClient adds the /external-api prefix. Unset by default: there is then
+        // no ProductClient and /products/{id}/details answers from the local catalog alone
+        String baseUrl,
+        // http11 pools one request per connection; h2c (cleartext, prior knowledge) or h2 (TLS) multiplex
+        // up to max-concurrent-streams requests over each connection
+        @DefaultValue("http11") HttpProtocol protocol,
+        // Pooled connections to the upstream
+        @DefaultValue("64") int maxConnections,
+        // HTTP/2 only: concurrent requests per connection
+        @DefaultValue("100") int maxConcurrentStreams,
+        // Requests waiting for a connection (or an HTTP/2 stream) beyond this fail immediately
+        @DefaultValue("1000") int pendingAcquireMaxCount,
+        // How long a request may wait for a connection before it fails
+        @DefaultValue("500ms") Duration pendingAcquireTimeout,
+        // Idle connections older than this are closed
+        @DefaultValue("30s") Duration maxIdleTime,
+        @DefaultValue("1s") Duration connectTimeout,
+        // Per request, from sending the request to the response headers
+        @DefaultValue("2s") Duration responseTimeout,
+        @DefaultValue Hedging hedging,
+        @DefaultValue Retry retry,
+        @DefaultValue RetryBudget retryBudget,
+        @DefaultValue CircuitBreaker.Settings circuitBreaker) {
+
+    // getProduct only: send a second request when the first is slower than the given latency percentile
+    public record Hedging(
+            @DefaultValue("false") boolean enabled,
+            // Percentile of recent getProduct latencies after which the hedge is sent
+            @DefaultValue("0.95") double percentile,
+            // Bounds for the hedge delay; max-delay is also used until enough latencies have been seen
+            @DefaultValue("5ms") Duration minDelay,
+            @DefaultValue("500ms") Duration maxDelay) {
+    }
+
+    // getProduct only: retries of 5xx, 429 and connection failures with jittered exponential backoff
+    public record Retry(
+            // Retries after the first attempt; 0 disables retrying
+            @DefaultValue("2") int maxAttempts,
+            @DefaultValue("20ms") Duration minBackoff,
+            @DefaultValue("200ms") Duration maxBackoff,
+            // Fraction of each backoff that is randomized
+            @DefaultValue("0.5") double jitter) {
+    }
+
+    // Hedges and retries together may add at most ratio extra requests per call, plus a burst of capacity
+    public record RetryBudget(
+            @DefaultValue("0.1") double ratio,
+            @DefaultValue("10") int capacity) {
+    }
+}
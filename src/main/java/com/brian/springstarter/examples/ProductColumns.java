@@ -0,0 +1,179 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Immutable column-oriented copy of the catalog: one primitive array per field instead of one Product
+// (plus a boxed Long and a category String) per row. Categories are dictionary-encoded, so each distinct
+// category string is held once and a row stores a 4-byte code. Rows are in id order; product(row)
+// materializes a Product only for rows that are actually returned.
+// The price filter runs over the price column with PriceRangeFilter (Vector API when available); the
+// aggregates are plain counted loops over the primitive columns.
+public final class ProductColumns implements ProductSearch {
+
+    private static final PriceRangeFilter PRICE_FILTER = PriceRangeFilter.available();
+
+    private final int size;
+    private final long[] ids;
+    private final String[] names;
+    private final double[] prices;
+    private final int[] categoryCodes;
+    // Category code -> category
+    private final String[] categories;
+
+    private ProductColumns(int size, long[] ids, String[] names, double[] prices, int[] categoryCodes,
+                           String[] categories) {
+        this.size = size;
+        this.ids = ids;
+        this.names = names;
+        this.prices = prices;
+        this.categoryCodes = categoryCodes;
+        this.categories = categories;
+    }
+
+    public static ProductColumns of(List<Product> catalog) {
+        Builder builder = new Builder();
+        catalog.forEach(builder::add);
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Product product(int row) {
+        return new Product(ids[row], names[row], prices[row], categories[categoryCodes[row]]);
+    }
+
+    // Selection bitmap of the rows with minPrice <= price <= maxPrice, see PriceRangeFilter
+    public long[] selectPriceRange(double minPrice, double maxPrice) {
+        return PRICE_FILTER.select(prices, size, minPrice, maxPrice);
+    }
+
+    // Price range first over the price column, then the name check only on the selected rows
+    @Override
+    public List<Product> search(String query, double minPrice, double maxPrice) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        long[] selection = selectPriceRange(minPrice, maxPrice);
+        List<Product> found = new ArrayList<>();
+        for (int word = 0; word < selection.length; word++) {
+            for (long bits = selection[word]; bits != 0; bits &= bits - 1) {
+                int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (containsIgnoreCase(names[row], needle)) {
+                    found.add(product(row));
+                }
+            }
+        }
+        return found;
+    }
+
+    public double totalValue() {
+        double total = 0;
+        for (int row = 0; row < size; row++) {
+            total += prices[row];
+        }
+        return total;
+    }
+
+    // Categories that have at least one product, sorted
+    public List<String> categories() {
+        int[] counts = new int[categories.length];
+        for (int row = 0; row < size; row++) {
+            counts[categoryCodes[row]]++;
+        }
+        List<String> present = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                present.add(categories[code]);
+            }
+        }
+        present.sort(null);
+        return present;
+    }
+
+    // Same as name.toLowerCase(Locale.ROOT).contains(needle) for a lower-case needle, char by char and
+    // without allocating; only differs for the few characters whose lower case is not a single char
+    static boolean containsIgnoreCase(String name, String needle) {
+        int last = name.length() - needle.length();
+        for (int start = 0; start <= last; start++) {
+            int i = 0;
+            while (i < needle.length() && Character.toLowerCase(name.charAt(start + i)) == needle.charAt(i)) {
+                i++;
+            }
+            if (i == needle.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Appends rows into growable columns; rows may arrive in any id order. Not thread-safe
+    public static final class Builder {
+
+        private long[] ids = new long[1024];
+        private String[] names = new String[1024];
+        private double[] prices = new double[1024];
+        private int[] categoryCodes = new int[1024];
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> categories = new ArrayList<>();
+        private int size;
+
+        public Builder add(Product product) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                names = Arrays.copyOf(names, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+            }
+            ids[size] = product.id();
+            names[size] = product.name();
+            prices[size] = product.price();
+            categoryCodes[size] = dictionary.computeIfAbsent(product.category(), category -> {
+                categories.add(category);
+                return categories.size() - 1;
+            });
+            size++;
+            return this;
+        }
+
+        public ProductColumns build() {
+            int[] order = idOrder();
+            long[] sortedIds = new long[size];
+            String[] sortedNames = new String[size];
+            double[] sortedPrices = new double[size];
+            int[] sortedCodes = new int[size];
+            for (int row = 0; row < size; row++) {
+                int from = order == null ? row : order[row];
+                sortedIds[row] = ids[from];
+                sortedNames[row] = names[from];
+                sortedPrices[row] = prices[from];
+                sortedCodes[row] = categoryCodes[from];
+            }
+            return new ProductColumns(size, sortedIds, sortedNames, sortedPrices, sortedCodes,
+                    categories.toArray(String[]::new));
+        }
+
+        // Null when the rows already arrived in id order (the usual case, findAll orders by id)
+        private int[] idOrder() {
+            boolean sorted = true;
+            for (int row = 1; row < size && sorted; row++) {
+                sorted = ids[row - 1] <= ids[row];
+            }
+            if (sorted) {
+                return null;
+            }
+            return IntStream.range(0, size).boxed()
+                    .sorted((a, b) -> Long.compare(ids[a], ids[b]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+// Product rows over R2DBC: plain SQL through DatabaseClient, mapped straight onto the Product record
+@Repository
+public class ProductRepository {
+
+    static final String FIND_BY_ID = "SELECT id, name, price, category FROM products WHERE id = :id";
+    static final String SEARCH = "SELECT id, name, price, category FROM products"
+            + " WHERE LOWER(name) LIKE :pattern AND price BETWEEN :minPrice AND :maxPrice ORDER BY id";
+    static final String FIND_ALL = "SELECT id, name, price, category FROM products ORDER BY id";
+    static final String LOCK_BY_ID = FIND_BY_ID + " FOR UPDATE";
+    static final String UPSERT = "INSERT INTO products (id, name, price, category)"
+            + " VALUES (:id, :name, :price, :category) ON DUPLICATE KEY UPDATE"
+            + " name = VALUES(name), price = VALUES(price), category = VALUES(category)";
+    static final String DELETE_BY_ID = "DELETE FROM products WHERE id = :id";
+
+    private final DatabaseClient db;
+
+    public ProductRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    public Mono<Product> findById(long id) {
+        return db.sql(FIND_BY_ID)
+                .bind("id", id)
+                .map(ProductRepository::product)
+                .one();
+    }
+
+    // Reads the row and locks it until the surrounding transaction ends
+    public Mono<Product> lockById(long id) {
+        return db.sql(LOCK_BY_ID)
+                .bind("id", id)
+                .map(ProductRepository::product)
+                .one();
+    }
+
+    public Mono<Void> upsert(Product product) {
+        return db.sql(UPSERT)
+                .bind("id", product.id())
+                .bind("name", product.name())
+                .bind("price", product.price())
+                .bind("category", product.category())
+                .then();
+    }
+
+    public Mono<Boolean> deleteById(long id) {
+        return db.sql(DELETE_BY_ID)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0);
+    }
+
+    // The whole catalog, for in-memory views (ProductSearchIndex, ProductAnalytics)
+    public Flux<Product> findAll() {
+        return db.sql(FIND_ALL)
+                .map(ProductRepository::product)
+                .all();
+    }
+
+    // Case-insensitive substring match on the name within [minPrice, maxPrice]
+    public Flux<Product> search(String query, double minPrice, double maxPrice) {
+        return db.sql(SEARCH)
+                .bind("pattern", containsPattern(query))
+                .bind("minPrice", minPrice)
+                .bind("maxPrice", maxPrice)
+                .map(ProductRepository::product)
+                .all();
+    }
+
+    static Product product(Readable row) {
+        return new Product(row.get("id", Long.class), row.get("name", String.class),
+                row.get("price", Double.class), row.get("category", String.class));
+    }
+
+    // LIKE pattern for "contains query"; wildcards in the query itself are matched literally
+    static String containsPattern(String query) {
+        String escaped = query.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,12 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+
+import java.util.List;
+
+// In-memory answer to /products/search, with the semantics of ProductRepository.search:
+// case-insensitive substring match on the name within [minPrice, maxPrice], ordered by id
+public interface ProductSearch {
+
+    List<Product> search(String query, double minPrice, double maxPrice);
+}
@@ -0,0 +1,195 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Immutable in-memory index for ProductService.searchProducts.
+// Names are lower-cased once at build time. A trigram inverted index narrows name matches to the products
+// containing the query's rarest trigram, and a price-sorted ordinal array narrows the price range by binary
+// search; whichever candidate set is smaller is verified with String.contains. Queries shorter than three
+// characters only have the price range to go on, and a short query over a wide range is still a full pass.
+public final class ProductSearchIndex implements ProductSearch {
+
+    private static final int[] NO_PRODUCTS = new int[0];
+
+    // Ordinal = position in id order; all arrays below refer to products by ordinal
+    private final Product[] products;
+    private final String[] lowerCaseNames;
+    // Prices ascending, with the ordinal of each price at the same position
+    private final double[] sortedPrices;
+    private final int[] ordinalsByPrice;
+    // Trigram (three chars packed into a long) -> ordinals of the names containing it, ascending
+    private final Map<Long, int[]> postings;
+
+    private ProductSearchIndex(Product[] products, String[] lowerCaseNames, double[] sortedPrices,
+                               int[] ordinalsByPrice, Map<Long, int[]> postings) {
+        this.products = products;
+        this.lowerCaseNames = lowerCaseNames;
+        this.sortedPrices = sortedPrices;
+        this.ordinalsByPrice = ordinalsByPrice;
+        this.postings = postings;
+    }
+
+    public static ProductSearchIndex build(List<Product> catalog) {
+        Product[] products = catalog.toArray(Product[]::new);
+        Arrays.sort(products, (a, b) -> Long.compare(a.id(), b.id()));
+        int size = products.length;
+
+        String[] names = new String[size];
+        Map<Long, PostingList> building = new HashMap<>();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            names[ordinal] = products[ordinal].name().toLowerCase(Locale.ROOT);
+            String name = names[ordinal];
+            for (int i = 0; i + 3 <= name.length(); i++) {
+                building.computeIfAbsent(trigram(name, i), key -> new PostingList()).add(ordinal);
+            }
+        }
+        Map<Long, int[]> postings = HashMap.newHashMap(building.size());
+        building.forEach((key, list) -> postings.put(key, list.toArray()));
+
+        Integer[] byPrice = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            byPrice[i] = i;
+        }
+        Arrays.sort(byPrice, (a, b) -> Double.compare(products[a].price(), products[b].price()));
+        double[] sortedPrices = new double[size];
+        int[] ordinalsByPrice = new int[size];
+        for (int i = 0; i < size; i++) {
+            ordinalsByPrice[i] = byPrice[i];
+            sortedPrices[i] = products[byPrice[i]].price();
+        }
+        return new ProductSearchIndex(products, names, sortedPrices, ordinalsByPrice, postings);
+    }
+
+    public int size() {
+        return products.length;
+    }
+
+    @Override
+    public List<Product> search(String query, double minPrice, double maxPrice) {
+        if (!(minPrice <= maxPrice)) {
+            return List.of();
+        }
+        String needle = query.toLowerCase(Locale.ROOT);
+        int from = lowerBound(minPrice);
+        int to = upperBound(maxPrice);
+
+        int[] rarest = needle.length() >= 3 ? rarestPosting(needle) : null;
+        if (rarest != null && rarest.length <= to - from) {
+            // Already in ordinal (id) order
+            int[] matches = new int[rarest.length];
+            int count = 0;
+            for (int ordinal : rarest) {
+                double price = products[ordinal].price();
+                if (price >= minPrice && price <= maxPrice && lowerCaseNames[ordinal].contains(needle)) {
+                    matches[count++] = ordinal;
+                }
+            }
+            return products(matches, count);
+        }
+        int[] matches = new int[to - from];
+        int count = 0;
+        if ((to - from) * 4L < products.length) {
+            for (int i = from; i < to; i++) {
+                int ordinal = ordinalsByPrice[i];
+                if (lowerCaseNames[ordinal].contains(needle)) {
+                    matches[count++] = ordinal;
+                }
+            }
+            Arrays.sort(matches, 0, count);
+            return products(matches, count);
+        }
+        // A wide price range selects most of the catalog: a sequential pass in id order beats
+        // jumping around through ordinalsByPrice and sorting the matches afterwards
+        for (int ordinal = 0; ordinal < products.length; ordinal++) {
+            double price = products[ordinal].price();
+            if (price >= minPrice && price <= maxPrice && lowerCaseNames[ordinal].contains(needle)) {
+                matches[count++] = ordinal;
+            }
+        }
+        return products(matches, count);
+    }
+
+    // Posting list of the query's least frequent trigram; empty if some trigram occurs in no name at all
+    private int[] rarestPosting(String needle) {
+        int[] rarest = null;
+        for (int i = 0; i + 3 <= needle.length(); i++) {
+            int[] posting = postings.getOrDefault(trigram(needle, i), NO_PRODUCTS);
+            if (rarest == null || posting.length < rarest.length) {
+                rarest = posting;
+                if (rarest.length == 0) {
+                    break;
+                }
+            }
+        }
+        return rarest;
+    }
+
+    private List<Product> products(int[] ordinals, int count) {
+        Product[] found = new Product[count];
+        for (int i = 0; i < count; i++) {
+            found[i] = products[ordinals[i]];
+        }
+        return Arrays.asList(found);
+    }
+
+    // First position with price >= minPrice
+    private int lowerBound(double minPrice) {
+        int low = 0;
+        int high = sortedPrices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] < minPrice) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First position with price > maxPrice
+    private int upperBound(double maxPrice) {
+        int low = 0;
+        int high = sortedPrices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] <= maxPrice) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long trigram(String s, int at) {
+        return ((long) s.charAt(at) << 32) | ((long) s.charAt(at + 1) << 16) | s.charAt(at + 2);
+    }
+
+    // Growable int array; ordinals arrive in ascending order, so a repeated trigram within one name is skipped
+    private static final class PostingList {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return;
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ordinals, size);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Product search settings (starter.products.search.*)
+@ConfigurationProperties("starter.products.search")
+public record ProductSearchProperties(
+        // Where /products/search is answered: index | columns | database
+        @DefaultValue("index") Store store,
+        // The index is rebuilt from the products table this often; searches see catalog changes after the next rebuild
+        @DefaultValue("1m") Duration refreshInterval) {
+
+    public enum Store {
+        // Trigram inverted index plus price-sorted array (ProductSearchIndex)
+        INDEX,
+        // Primitive columns scanned with a price-range loop (ProductColumns)
+        COLUMNS,
+        // LIKE query against the products table on every request
+        DATABASE
+    }
+}
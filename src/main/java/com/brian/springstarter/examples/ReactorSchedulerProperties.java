@@ -0,0 +1,34 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+// Schedulers for timer-driven work (starter.reactor.*)
+@ConfigurationProperties("starter.reactor")
+public record ReactorSchedulerProperties(
+        // Publish starter.scheduler.tasks.* for every named scheduler
+        @DefaultValue("true") boolean schedulerMetrics,
+        // Keyed by the work that runs on it, e.g. starter.reactor.schedulers.streams.type; names that are not
+        // configured share Schedulers.parallel(), which is where Reactor's timed operators run by default
+        Map<String, Spec> schedulers) {
+
+    public record Spec(
+            @DefaultValue("parallel") Type type,
+            // parallel: threads; bounded-elastic / virtual-threads: cap on concurrently running tasks.
+            // 0 shares Reactor's global scheduler of the type (virtual-threads: Reactor's default cap)
+            @DefaultValue("0") int size,
+            // bounded-elastic / virtual-threads: tasks queued beyond the cap before new ones are rejected
+            @DefaultValue("100000") int queueCapacity) {
+    }
+
+    public enum Type {
+        // Fixed pool of non-blocking threads, one per core by default; timers and short CPU work only
+        PARALLEL,
+        // Growing pool of platform threads for blocking work
+        BOUNDED_ELASTIC,
+        // Like bounded-elastic, but each worker is a virtual thread
+        VIRTUAL_THREADS
+    }
+}
@@ -0,0 +1,78 @@
+package com.brian.springstarter.examples;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// One Scheduler per named workload (starter.reactor.schedulers.*), handed to the timed operators
+// (interval, delayElement, timeout, Mono.delay, retry backoff) that would otherwise all share Schedulers.parallel().
+// With scheduler-metrics each one is wrapped in Reactor's TimedScheduler and exported as
+// starter.scheduler.tasks.* tagged scheduler=<name>: tasks submitted, tasks pending (waiting for a thread:
+// queue depth and queueing time), tasks active (busy workers) and completed task durations.
+@Component
+public class ReactorSchedulers implements DisposableBean {
+
+    private static final String METRICS_PREFIX = "starter";
+
+    private static final ReactorSchedulerProperties.Spec SHARED_PARALLEL =
+            new ReactorSchedulerProperties.Spec(ReactorSchedulerProperties.Type.PARALLEL, 0, 0);
+
+    private final ReactorSchedulerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Scheduler> schedulers = new ConcurrentHashMap<>();
+    // Created here rather than shared with the rest of the application, so disposed here too
+    private final List<Scheduler> dedicated = new CopyOnWriteArrayList<>();
+
+    public ReactorSchedulers(ReactorSchedulerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        if (properties.schedulers() != null) {
+            properties.schedulers().keySet().forEach(this::scheduler);
+        }
+    }
+
+    public Scheduler scheduler(String name) {
+        return schedulers.computeIfAbsent(name, this::create);
+    }
+
+    private Scheduler create(String name) {
+        ReactorSchedulerProperties.Spec spec = properties.schedulers() == null
+                ? SHARED_PARALLEL
+                : properties.schedulers().getOrDefault(name, SHARED_PARALLEL);
+        String threadPrefix = "starter-" + name;
+        Scheduler scheduler = switch (spec.type()) {
+            case PARALLEL -> spec.size() == 0
+                    ? Schedulers.parallel()
+                    : track(Schedulers.newParallel(threadPrefix, spec.size()));
+            case BOUNDED_ELASTIC -> spec.size() == 0
+                    ? Schedulers.boundedElastic()
+                    : track(Schedulers.newBoundedElastic(spec.size(), spec.queueCapacity(), threadPrefix));
+            case VIRTUAL_THREADS -> track(Schedulers.newBoundedElastic(
+                    spec.size() == 0 ? Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE : spec.size(), spec.queueCapacity(),
+                    Thread.ofVirtual().name(threadPrefix + "-", 0).factory(), 60));
+        };
+        if (!properties.schedulerMetrics()) {
+            return scheduler;
+        }
+        return Micrometer.timedScheduler(scheduler, meterRegistry, METRICS_PREFIX, Tags.of("scheduler", name));
+    }
+
+    private Scheduler track(Scheduler scheduler) {
+        dedicated.add(scheduler);
+        return scheduler;
+    }
+
+    @Override
+    public void destroy() {
+        dedicated.forEach(Scheduler::dispose);
+    }
+}
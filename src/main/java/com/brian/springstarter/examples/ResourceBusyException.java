@@ -0,0 +1,20 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+// A ResourceGuard had no free permit (within its acquire timeout for blocking callers); surfaces as 503 on both stacks
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ResourceBusyException extends RuntimeException {
+
+    public ResourceBusyException(String resource, Duration acquireTimeout) {
+        super("Resource '" + resource + "' is saturated, no permit within " + acquireTimeout);
+    }
+
+    // Rejected without waiting (ResourceGuard.mono / flux)
+    public ResourceBusyException(String resource) {
+        super("Resource '" + resource + "' is saturated, all permits in use");
+    }
+}
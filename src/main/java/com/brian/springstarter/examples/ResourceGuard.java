@@ -0,0 +1,103 @@
+package com.brian.springstarter.examples;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Caps concurrent calls into one downstream resource (a connection pool, a remote service).
+// Virtual threads make callers almost free, so without a cap thousands of them can pile onto a pool
+// sized for a handful of connections and time out inside it. The guard makes them wait here instead,
+// in FIFO order and for at most acquireTimeout, after which the call is rejected with ResourceBusyException.
+// Waiting parks the virtual thread (Semaphore is AQS-based), so no carrier thread is pinned.
+public final class ResourceGuard {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public ResourceGuard(String name, int maxConcurrent, Duration acquireTimeout) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    // Blocking: meant for virtual threads or other threads that are allowed to wait
+    public <T> T call(Callable<T> call) throws Exception {
+        waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new ResourceBusyException(name, acquireTimeout);
+        }
+        try {
+            return call.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Non-blocking, for reactive callers that must not wait on the semaphore: the call gets a permit only if
+    // one is free right now and otherwise fails fast with ResourceBusyException. The permit is held until the
+    // returned Mono terminates or is cancelled
+    public <T> Mono<T> mono(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquireNow()) {
+                return Mono.error(new ResourceBusyException(name));
+            }
+            return Mono.defer(call).doFinally(signal -> permits.release());
+        });
+    }
+
+    public <T> Flux<T> flux(Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            if (!tryAcquireNow()) {
+                return Flux.error(new ResourceBusyException(name));
+            }
+            return Flux.defer(call).doFinally(signal -> permits.release());
+        });
+    }
+
+    private boolean tryAcquireNow() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int inUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int waiting() {
+        return waiting.get();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,23 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Per-resource concurrency caps (starter.guards.*)
+@ConfigurationProperties("starter.guards")
+public record ResourceGuardProperties(
+        // Keyed by resource name, e.g. starter.guards.resources.pricing.max-concurrent
+        Map<String, Limit> resources,
+        // How often saturated guards are logged
+        @DefaultValue("1m") Duration reportInterval) {
+
+    public record Limit(
+            // Calls allowed into the resource at the same time
+            @DefaultValue("16") int maxConcurrent,
+            // How long a caller waits for a permit before the call is rejected
+            @DefaultValue("1s") Duration acquireTimeout) {
+    }
+}
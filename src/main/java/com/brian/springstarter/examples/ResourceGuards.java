@@ -0,0 +1,69 @@
+package com.brian.springstarter.examples;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// One ResourceGuard per configured downstream resource, exported as
+// starter.guard.active / starter.guard.waiting / starter.guard.rejected tagged with the resource name
+@Component
+public class ResourceGuards {
+
+    private static final Logger log = LoggerFactory.getLogger(ResourceGuards.class);
+
+    private final Map<String, ResourceGuard> guards = new TreeMap<>();
+    private final Map<String, Long> reportedRejections = new HashMap<>();
+
+    public ResourceGuards(ResourceGuardProperties properties, MeterRegistry meterRegistry) {
+        if (properties.resources() != null) {
+            properties.resources().forEach((name, limit) -> guards.put(name,
+                    new ResourceGuard(name, limit.maxConcurrent(), limit.acquireTimeout())));
+        }
+        guards.values().forEach(guard -> register(guard, meterRegistry));
+    }
+
+    public ResourceGuard guard(String resource) {
+        ResourceGuard guard = guards.get(resource);
+        if (guard == null) {
+            throw new IllegalArgumentException("No starter.guards.resources." + resource + " configured");
+        }
+        return guard;
+    }
+
+    // Runs on a virtual thread when spring.threads.virtual.enabled is set (tomcat-vt profile)
+    @Scheduled(fixedDelayString = "${starter.guards.report-interval:1m}")
+    public void reportSaturation() {
+        for (ResourceGuard guard : guards.values()) {
+            long rejected = guard.rejected();
+            long previous = reportedRejections.getOrDefault(guard.name(), 0L);
+            if (rejected > previous) {
+                log.warn("Resource guard '{}' rejected {} calls since the last report ({}/{} in use, {} waiting)",
+                        guard.name(), rejected - previous, guard.inUse(), guard.maxConcurrent(), guard.waiting());
+            }
+            reportedRejections.put(guard.name(), rejected);
+        }
+    }
+
+    private static void register(ResourceGuard guard, MeterRegistry meterRegistry) {
+        Gauge.builder("starter.guard.active", guard, ResourceGuard::inUse)
+                .description("Permits currently held")
+                .tag("resource", guard.name())
+                .register(meterRegistry);
+        Gauge.builder("starter.guard.waiting", guard, ResourceGuard::waiting)
+                .description("Callers waiting for a permit")
+                .tag("resource", guard.name())
+                .register(meterRegistry);
+        FunctionCounter.builder("starter.guard.rejected", guard, ResourceGuard::rejected)
+                .description("Calls rejected after the acquire timeout, or at once for reactive callers")
+                .tag("resource", guard.name())
+                .register(meterRegistry);
+    }
+}
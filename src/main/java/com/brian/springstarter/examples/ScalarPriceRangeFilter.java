@@ -0,0 +1,21 @@
+package com.brian.springstarter.examples;
+
+// Plain loop, one comparison pair per row; builds each 64-row word in a register without branching
+public class ScalarPriceRangeFilter implements PriceRangeFilter {
+
+    @Override
+    public long[] select(double[] prices, int size, double minPrice, double maxPrice) {
+        long[] selection = new long[(size + 63) >>> 6];
+        for (int word = 0; word < selection.length; word++) {
+            int base = word << 6;
+            int rows = Math.min(64, size - base);
+            long bits = 0;
+            for (int bit = 0; bit < rows; bit++) {
+                double price = prices[base + bit];
+                bits |= (price >= minPrice & price <= maxPrice ? 1L : 0L) << bit;
+            }
+            selection[word] = bits;
+        }
+        return selection;
+    }
+}
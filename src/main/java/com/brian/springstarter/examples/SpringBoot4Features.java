@@ -1,16 +1,32 @@
 package com.brian.springstarter.examples;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/v4")
@@ -24,33 +40,91 @@ public class SpringBoot4Features {
     
     record OrderItem(Long productId, int quantity, double price) {}
 
+    private final OrderAggregationService orderAggregationService;
+    private final OrderIngestService orderIngestService;
+    private final ProductService productService;
+    // null unless starter.product-client.base-url is set
+    private final ProductClient productClient;
+    private final BroadcastStream<Product> productBroadcast;
+    private final BroadcastStream<String> notificationBroadcast;
+
+    public SpringBoot4Features(OrderAggregationService orderAggregationService,
+                               OrderIngestService orderIngestService, ProductService productService,
+                               ObjectProvider<ProductClient> productClient,
+                               BroadcastStream<Product> productBroadcast,
+                               BroadcastStream<String> notificationBroadcast) {
+        this.orderAggregationService = orderAggregationService;
+        this.orderIngestService = orderIngestService;
+        this.productService = productService;
+        this.productClient = productClient.getIfAvailable();
+        this.productBroadcast = productBroadcast;
+        this.notificationBroadcast = notificationBroadcast;
+    }
+
     // 1. Reactive REST endpoints - non-blocking I/O
     @GetMapping(value = "/products/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<Product> streamProducts() {
-        return Flux.interval(Duration.ofSeconds(1))
-                .map(i -> new Product(i, "Product-" + i, 100.0 + i, "Electronics"));
+        // All subscribers share one ticker (StreamConfiguration), each with its own bounded buffer.
+        // With starter.stream.pre-serialized=true on the reactive stack this endpoint and /notifications
+        // are served by PreSerializedStreamConfiguration instead, which encodes each event only once
+        return productBroadcast.subscribe();
     }
 
     // 2. Reactive CRUD with non-blocking database calls
     @GetMapping("/products/{id}")
     public Mono<Product> getProduct(@PathVariable Long id) {
-        // Simulating reactive database call
-        return Mono.just(new Product(id, "Smartphone", 699.99, "Electronics"))
-                .delayElement(Duration.ofMillis(100)); // Simulate latency
+        // Served from the async product cache, misses fall through to the product table (R2DBC)
+        return productService.getProduct(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No product " + id)));
+    }
+
+    @PutMapping("/products/{id}")
+    public Mono<Product> saveProduct(@PathVariable Long id, @RequestBody Product product) {
+        if (product.name() == null || product.category() == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "A product needs a name and a category"));
+        }
+        Product saved = new Product(id, product.name(), product.price(), product.category());
+        return productService.saveProduct(saved).thenReturn(saved);
+    }
+
+    @DeleteMapping("/products/{id}")
+    public Mono<Void> deleteProduct(@PathVariable Long id) {
+        return productService.deleteProduct(id)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No product " + id)))
+                // order_items references the catalog, so a product that has been ordered stays
+                .onErrorMap(DataIntegrityViolationException.class,
+                    ex -> new ResponseStatusException(HttpStatus.CONFLICT, "Product " + id + " has orders", ex))
+                .then();
+    }
+
+    @GetMapping("/products/analytics")
+    public Mono<ProductAnalytics.Snapshot> getProductAnalytics() {
+        // Maintained on every product write, so this does not depend on the catalog size
+        return productService.getProductAnalytics();
+    }
+
+    @GetMapping("/products/search")
+    public Flux<Product> searchProducts(@RequestParam("q") String query,
+                                        @RequestParam(defaultValue = "0") double minPrice,
+                                        @RequestParam(defaultValue = "" + Double.MAX_VALUE) double maxPrice) {
+        return productService.searchProducts(query, minPrice, maxPrice);
     }
 
     // 3. Reactive aggregation - combining multiple async calls
     @GetMapping("/users/{userId}/orders")
     public Flux<Order> getUserOrders(@PathVariable Long userId) {
-        // Simulating reactive calls to multiple services
-        return Flux.range(1, 5)
-                .map(i -> new Order(
-                        (long) i,
-                        userId,
-                        List.of(new OrderItem((long) (i * 10), i, 50.0 * i)),
-                        100.0 * i
-                ))
-                .delayElements(Duration.ofMillis(50));
+        // Item and price lookups are fanned out concurrently, see OrderAggregationService
+        return orderAggregationService.getUserOrders(userId)
+                .onErrorMap(TimeoutException.class,
+                    ex -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Order aggregation timed out", ex));
+    }
+
+    @PostMapping("/orders")
+    public Flux<OrderIngestService.OrderAck> createOrders(@RequestBody List<Order> orders) {
+        // Orders from concurrent requests are coalesced into batched inserts; ids are assigned server-side
+        // and each order is acknowledged (STORED or FAILED) once its batch has been written
+        return orderIngestService.ingest(orders);
     }
 
     // 4. HTTP Interface clients - declarative HTTP clients (Spring 6+)
@@ -66,29 +140,96 @@ public class SpringBoot4Features {
     // 5. Functional endpoints with Router Functions
     @Service
     public static class ProductService {
-        
+
+        private final ProductRepository productRepository;
+        private final ProductAnalytics analytics;
+        private final TransactionalOperator transactions;
+        private final ProductSearchProperties searchProperties;
+        private final AsyncLoadingCache<Long, Product> productCache;
+        // Null until the first build has finished; searches go to the database until then
+        private volatile ProductSearch inMemorySearch;
+
+        public ProductService(ProductRepository productRepository, ProductAnalytics analytics,
+                              ReactiveTransactionManager transactionManager, ProductCacheProperties cacheProperties,
+                              ProductSearchProperties searchProperties, MeterRegistry meterRegistry) {
+            this.productRepository = productRepository;
+            this.analytics = analytics;
+            this.transactions = TransactionalOperator.create(transactionManager);
+            this.searchProperties = searchProperties;
+            // Caffeine coalesces concurrent misses for the same id into a single load,
+            // and recordStats() feeds the cache.gets / cache.load meters exported through actuator
+            this.productCache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                    .maximumSize(cacheProperties.maximumSize())
+                    .expireAfterWrite(cacheProperties.expireAfterWrite())
+                    .refreshAfterWrite(cacheProperties.refreshAfterWrite())
+                    .recordStats()
+                    .buildAsync((Long id, Executor executor) -> loadProduct(id).toFuture()), "products");
+        }
+
+        // Empty if there is no such product; misses are not cached
+        public Mono<Product> getProduct(Long id) {
+            // suppressCancel: a cancelled caller must not cancel the load shared with other callers
+            return Mono.fromFuture(() -> productCache.get(id), true);
+        }
+
+        private Mono<Product> loadProduct(Long id) {
+            return productRepository.findById(id);
+        }
+
         public Flux<Product> searchProducts(String query, double minPrice, double maxPrice) {
-            return Flux.just(
-                    new Product(1L, "iPhone", 999.0, "Electronics"),
-                    new Product(2L, "Samsung Galaxy", 899.0, "Electronics"),
-                    new Product(3L, "Google Pixel", 799.0, "Electronics")
-            )
-            .filter(p -> p.name().toLowerCase().contains(query.toLowerCase()))
-            .filter(p -> p.price() >= minPrice && p.price() <= maxPrice);
+            ProductSearch search = inMemorySearch;
+            if (search == null) {
+                return productRepository.search(query, minPrice, maxPrice);
+            }
+            return Flux.defer(() -> Flux.fromIterable(search.search(query, minPrice, maxPrice)));
         }
 
-        public Mono<Map<String, Object>> getProductAnalytics() {
-            return Flux.just(
-                    new Product(1L, "Laptop", 1200.0, "Electronics"),
-                    new Product(2L, "Mouse", 25.0, "Electronics"),
-                    new Product(3L, "Keyboard", 75.0, "Electronics")
-            )
-            .collectList()
-            .map(products -> Map.of(
-                    "totalProducts", products.size(),
-                    "totalValue", products.stream().mapToDouble(Product::price).sum(),
-                    "categories", products.stream().map(Product::category).distinct().toList()
-            ));
+        // First run right after startup; the new copy replaces the old one only once it is complete
+        @Scheduled(fixedDelayString = "${starter.products.search.refresh-interval:1m}")
+        public Mono<Void> refreshSearch() {
+            Mono<? extends ProductSearch> built = switch (searchProperties.store()) {
+                case INDEX -> productRepository.findAll().collectList().map(ProductSearchIndex::build);
+                case COLUMNS -> productRepository.findAll()
+                        .collect(ProductColumns.Builder::new, ProductColumns.Builder::add)
+                        .map(ProductColumns.Builder::build);
+                case DATABASE -> Mono.empty();
+            };
+            return built.doOnNext(search -> inMemorySearch = search).then();
+        }
+
+        // Inserts or replaces the product and returns the version it replaced, empty for a new product.
+        // The row lock pairs each write with the version it actually replaced, which is what the analytics delta needs
+        public Mono<Product> saveProduct(Product product) {
+            return productRepository.lockById(product.id())
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(previous -> productRepository.upsert(product).thenReturn(previous))
+                    .as(transactions::transactional)
+                    // Outside the transaction: no write starts before the analytics seed has been read
+                    .delaySubscription(analytics.ready())
+                    .doOnNext(previous -> {
+                        previous.ifPresent(analytics::removed);
+                        analytics.added(product);
+                        productCache.synchronous().invalidate(product.id());
+                    })
+                    .flatMap(Mono::justOrEmpty);
+        }
+
+        // False if there was no such product
+        public Mono<Boolean> deleteProduct(Long id) {
+            return productRepository.lockById(id)
+                    .flatMap(previous -> productRepository.deleteById(id).thenReturn(previous))
+                    .as(transactions::transactional)
+                    .delaySubscription(analytics.ready())
+                    .doOnNext(previous -> {
+                        analytics.removed(previous);
+                        productCache.synchronous().invalidate(id);
+                    })
+                    .hasElement();
+        }
+
+        public Mono<ProductAnalytics.Snapshot> getProductAnalytics() {
+            return analytics.ready().then(Mono.fromSupplier(analytics::snapshot));
         }
     }
 
@@ -100,7 +241,20 @@ public class SpringBoot4Features {
                     if (productId <= 0) {
                         return Mono.error(new IllegalArgumentException("Invalid product ID"));
                     }
-                    return Mono.just(new Product(productId, "Product " + productId, 100.0, "Category"));
+                    if (productClient == null) {
+                        return productService.getProduct(productId)
+                                .switchIfEmpty(Mono.error(() ->
+                                    new ResponseStatusException(HttpStatus.NOT_FOUND, "No product " + productId)));
+                    }
+                    // Upstream product service first; when it fails, is saturated (bulkhead) or its circuit
+                    // is open, the local catalog answers instead. An upstream 404 is an answer, not a failure
+                    return productClient.getProduct(productId)
+                            .onErrorResume(ex -> !(ex instanceof WebClientResponseException.NotFound),
+                                ex -> productService.getProduct(productId))
+                            .onErrorMap(WebClientResponseException.NotFound.class,
+                                ex -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No product " + productId))
+                            .switchIfEmpty(Mono.error(() ->
+                                new ResponseStatusException(HttpStatus.NOT_FOUND, "No product " + productId)));
                 })
                 .onErrorResume(IllegalArgumentException.class, 
                     ex -> Mono.just(new Product(0L, "Default Product", 0.0, "None")));
@@ -109,18 +263,25 @@ public class SpringBoot4Features {
     // 7. Server-Sent Events with reactive streams
     @GetMapping(value = "/notifications", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<String> getNotifications() {
-        return Flux.interval(Duration.ofSeconds(2))
-                .map(i -> "Notification " + i + " at " + java.time.LocalTime.now());
+        // One shared ticker for all subscribers, like /products/stream
+        return notificationBroadcast.subscribe();
     }
 
     // 8. Reactive file processing (simulation)
+    // Real uploads go to POST /process-csv (CsvIngestionController), this endpoint parses a fixed sample
     @GetMapping("/process-csv")
     public Flux<String> processCsvData() {
-        // Simulating processing large CSV file reactively
-        return Flux.just("product1,100.0,10", "product2,200.0,20", "product3,300.0,30")
-                .map(line -> {
-                    String[] parts = line.split(",");
-                    return "Processed: " + parts[0] + " with revenue " + (Double.parseDouble(parts[1]) * Integer.parseInt(parts[2]));
-                });
+        return Flux.defer(() -> {
+            List<String> results = new ArrayList<>();
+            CsvRevenueParser parser = new CsvRevenueParser((line, nameStart, nameEnd, price, quantity) ->
+                    results.add("Processed: " + CsvRevenueParser.decode(line, nameStart, nameEnd)
+                            + " with revenue " + (price * quantity)));
+            parser.feed(ByteBuffer.wrap(SAMPLE_CSV));
+            parser.finish();
+            return Flux.fromIterable(results);
+        });
     }
+
+    private static final byte[] SAMPLE_CSV =
+            "product1,100.0,10\nproduct2,200.0,20\nproduct3,300.0,30\n".getBytes(StandardCharsets.UTF_8);
 }
\ No newline at end of file
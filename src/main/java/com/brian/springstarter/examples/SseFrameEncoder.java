@@ -0,0 +1,81 @@
+package com.brian.springstarter.examples;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Encodes server-sent events once so the same bytes can be written to every connection.
+// An event becomes an immutable byte array holding the complete frame ("data:<payload>\n\n"), with the
+// payload produced by the application's own JSON encoder, so the output matches the annotated endpoints.
+// Frames are plain heap arrays rather than pooled buffers on purpose: the replay-latest sink and every slow
+// subscriber's buffer may hold on to a frame for an unknown time, and an array can never be recycled under
+// them. Each subscriber writes through its own unpooled wrapper, released by Netty once written.
+public final class SseFrameEncoder {
+
+    private static final byte[] DATA = "data:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END = "\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final Encoder<Object> jsonEncoder;
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(ByteBufAllocator.DEFAULT);
+
+    @SuppressWarnings("unchecked")
+    public SseFrameEncoder(CodecConfigurer codecs) {
+        this.jsonEncoder = codecs.getWriters().stream()
+                .filter(writer -> writer instanceof EncoderHttpMessageWriter<?>
+                        && writer.getWritableMediaTypes().contains(MediaType.APPLICATION_JSON))
+                .map(writer -> (Encoder<Object>) ((EncoderHttpMessageWriter<?>) writer).getEncoder())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No JSON encoder configured"));
+    }
+
+    // One frame per event
+    public Flux<byte[]> encode(Flux<?> events) {
+        return events.map(this::encode);
+    }
+
+    // Per-connection view of a frame subscribed through BroadcastStream
+    public Flux<DataBuffer> subscribe(BroadcastStream<byte[]> frames) {
+        return frames.subscribe(this::share, DataBuffer.class, DataBufferUtils::release);
+    }
+
+    byte[] encode(Object event) {
+        // Strings are written as-is like ServerSentEventHttpMessageWriter does, every line prefixed with data:
+        if (event instanceof CharSequence text) {
+            return frame(text.toString().replace("\n", "\ndata:").getBytes(StandardCharsets.UTF_8));
+        }
+        DataBuffer json = jsonEncoder.encodeValue(event, bufferFactory, ResolvableType.forInstance(event),
+                MediaType.APPLICATION_JSON, Map.of());
+        ByteBuf payload = NettyDataBufferFactory.toByteBuf(json);
+        try {
+            byte[] bytes = new byte[payload.readableBytes()];
+            payload.readBytes(bytes);
+            return frame(bytes);
+        } finally {
+            payload.release();
+        }
+    }
+
+    DataBuffer share(byte[] frame) {
+        return bufferFactory.wrap(Unpooled.wrappedBuffer(frame));
+    }
+
+    private static byte[] frame(byte[] payload) {
+        byte[] frame = new byte[DATA.length + payload.length + END.length];
+        System.arraycopy(DATA, 0, frame, 0, DATA.length);
+        System.arraycopy(payload, 0, frame, DATA.length, payload.length);
+        System.arraycopy(END, 0, frame, DATA.length + payload.length, END.length);
+        return frame;
+    }
+}
@@ -0,0 +1,75 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+// Hot, shared publishers behind the SSE endpoints.
+// Per stream: starter.stream.subscribers, starter.stream.dropped, and the delivery timers
+// starter.sse.first-event (subscribing to the first event) and starter.sse.event-gap (between events on one
+// connection), which get histogram buckets from LatencyMetricsConfiguration
+@Configuration(proxyBeanMethods = false)
+public class StreamConfiguration {
+
+    // starter.reactor.schedulers.streams
+    static final String TICK_SCHEDULER = "streams";
+
+    @Bean(destroyMethod = "dispose")
+    public BroadcastStream<Product> productBroadcast(StreamProperties properties, ReactorSchedulers schedulers,
+                                                     MeterRegistry meterRegistry) {
+        Flux<Product> ticks = Flux.interval(Duration.ofSeconds(1), schedulers.scheduler(TICK_SCHEDULER))
+                .map(i -> new Product(i, "Product-" + i, 100.0 + i, "Electronics"));
+        return broadcast("products", ticks, properties, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public BroadcastStream<String> notificationBroadcast(StreamProperties properties, ReactorSchedulers schedulers,
+                                                         MeterRegistry meterRegistry) {
+        Flux<String> ticks = Flux.interval(Duration.ofSeconds(2), schedulers.scheduler(TICK_SCHEDULER))
+                .map(i -> "Notification " + i + " at " + LocalTime.now());
+        return broadcast("notifications", ticks, properties, meterRegistry);
+    }
+
+    static <T> BroadcastStream<T> broadcast(String name, Flux<T> source, StreamProperties properties,
+                                            MeterRegistry meterRegistry) {
+        Counter dropped = Counter.builder("starter.stream.dropped")
+                .description("Elements dropped for slow subscribers")
+                .tag("stream", name)
+                .register(meterRegistry);
+        Timer firstEvent = Timer.builder(LatencyMetricsConfiguration.SSE_METER_PREFIX + "first-event")
+                .description("From subscribing to the first event delivered")
+                .tag("stream", name)
+                .register(meterRegistry);
+        Timer eventGap = Timer.builder(LatencyMetricsConfiguration.SSE_METER_PREFIX + "event-gap")
+                .description("Between consecutive events delivered to one subscriber")
+                .tag("stream", name)
+                .register(meterRegistry);
+        BroadcastStream<T> stream = new BroadcastStream<>(source, properties.replayLatest(),
+                properties.bufferSize(), properties.slowConsumerPolicy(), dropped::increment,
+                new BroadcastStream.DeliveryListener() {
+                    @Override
+                    public void first(long nanosSinceSubscribe) {
+                        firstEvent.record(nanosSinceSubscribe, TimeUnit.NANOSECONDS);
+                    }
+
+                    @Override
+                    public void next(long nanosSincePrevious) {
+                        eventGap.record(nanosSincePrevious, TimeUnit.NANOSECONDS);
+                    }
+                });
+        Gauge.builder("starter.stream.subscribers", stream, BroadcastStream::subscriberCount)
+                .description("Connected subscribers")
+                .tag("stream", name)
+                .register(meterRegistry);
+        return stream;
+    }
+}
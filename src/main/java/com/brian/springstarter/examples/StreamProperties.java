@@ -0,0 +1,17 @@
+package com.brian.springstarter.examples;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Shared SSE fan-out settings (starter.stream.*)
+@ConfigurationProperties("starter.stream")
+public record StreamProperties(
+        // Elements buffered per subscriber before the slow-consumer policy kicks in
+        @DefaultValue("256") int bufferSize,
+        // drop-oldest, drop-latest or disconnect
+        @DefaultValue("drop-oldest") BroadcastStream.SlowConsumerPolicy slowConsumerPolicy,
+        // Send the latest element to a new subscriber right away
+        @DefaultValue("true") boolean replayLatest,
+        // Reactive stack only: encode each event once and share the bytes across connections
+        @DefaultValue("false") boolean preSerialized) {
+}
@@ -0,0 +1,44 @@
+package com.brian.springstarter.examples;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD filter on the Vector API (jdk.incubator.vector, needs --add-modules jdk.incubator.vector at compile
+// and run time). Each step compares a full vector of prices (4 lanes with AVX2, 8 with AVX-512) against both
+// bounds; the resulting lane mask is already a bitmap fragment and is shifted into the current word.
+// Only load this class through PriceRangeFilter.available(), which checks that the module is present.
+public class VectorPriceRangeFilter implements PriceRangeFilter {
+
+    // Lane counts for doubles are powers of two up to 8, so a step never straddles two 64-row words
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public long[] select(double[] prices, int size, double minPrice, double maxPrice) {
+        long[] selection = new long[(size + 63) >>> 6];
+        int lanes = SPECIES.length();
+        int fullWords = size >>> 6;
+        for (int word = 0; word < fullWords; word++) {
+            int base = word << 6;
+            long bits = 0;
+            for (int lane = 0; lane < 64; lane += lanes) {
+                DoubleVector vector = DoubleVector.fromArray(SPECIES, prices, base + lane);
+                VectorMask<Double> inRange = vector.compare(VectorOperators.GE, minPrice)
+                        .and(vector.compare(VectorOperators.LE, maxPrice));
+                bits |= inRange.toLong() << lane;
+            }
+            selection[word] = bits;
+        }
+        // Last partial word
+        long bits = 0;
+        for (int row = fullWords << 6; row < size; row++) {
+            double price = prices[row];
+            bits |= (price >= minPrice & price <= maxPrice ? 1L : 0L) << (row & 63);
+        }
+        if (fullWords < selection.length) {
+            selection[fullWords] = bits;
+        }
+        return selection;
+    }
+}
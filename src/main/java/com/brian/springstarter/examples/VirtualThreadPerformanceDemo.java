@@ -1,10 +1,13 @@
 package com.brian.springstarter.examples;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 
 public class VirtualThreadPerformanceDemo {
@@ -13,84 +16,112 @@ public class VirtualThreadPerformanceDemo {
     private static final int TASK_COUNT = 10_000; // 1万个并发任务
     private static final int IO_DELAY_MS = 100;   // 每个任务100ms IO等待
 
-    // 模拟IO操作
-    private static String simulateIOOperation(int taskId) {
-        try {
-            // 模拟HTTP调用或数据库查询延迟
-            Thread.sleep(IO_DELAY_MS);
-            return "Task-" + taskId + " completed by " + Thread.currentThread();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return "Task-" + taskId + " interrupted";
+    // 在给定执行器上提交 taskCount 个任务并等待全部完成，分别返回成功和失败的任务数
+    // 执行器和负载环境由调用方管理，JMH 基准（src/jmh）复用它们跑多轮
+    public static Tally runTasks(ExecutorService executor, int taskCount, IoWorkload.Environment env) {
+        List<CompletableFuture<Boolean>> futures = IntStream.range(0, taskCount)
+                .mapToObj(i -> CompletableFuture
+                        .supplyAsync(() -> env.run(i), executor))
+                .toList();
+
+        // 等待所有任务完成
+        int completed = (int) futures.stream()
+                .map(CompletableFuture::join)
+                .filter(Boolean::booleanValue)
+                .count();
+        return new Tally(completed, taskCount - completed);
+    }
+
+    // 失败的任务不计入吞吐量，否则目标越差（连接被拒得越快）吞吐量反而越高
+    public record Tally(int completed, int failed) {
+    }
+
+    // 为单次场景准备负载环境，场景结束后释放（echo 服务器、临时文件等）
+    private static Result withWorkload(IoWorkload workload, int ioDelayMs,
+                                       Function<IoWorkload.Environment, Result> scenario) {
+        try (IoWorkload.Environment env = workload.open(ioDelayMs)) {
+            return scenario.apply(env);
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法准备负载 " + workload, e);
         }
     }
 
     // 方案1：传统线程池（固定大小）
     public static Result traditionalThreadPool() {
+        return traditionalThreadPool(IoWorkload.SLEEP, TASK_COUNT, IO_DELAY_MS, 200); // 传统线程池通常限制在几百个
+    }
+
+    public static Result traditionalThreadPool(IoWorkload workload, int taskCount, int ioDelayMs, int poolSize) {
+        return withWorkload(workload, ioDelayMs, env -> traditionalThreadPool(env, taskCount, poolSize));
+    }
+
+    public static Result traditionalThreadPool(IoWorkload.Environment env, int taskCount, int poolSize) {
         System.out.println("🔄 传统线程池方案...");
         
-        int poolSize = 200; // 传统线程池通常限制在几百个
         ExecutorService executor = Executors.newFixedThreadPool(poolSize);
         
         Instant start = Instant.now();
-        List<CompletableFuture<String>> futures = IntStream.range(0, TASK_COUNT)
-                .mapToObj(i -> CompletableFuture
-                        .supplyAsync(() -> simulateIOOperation(i), executor))
-                .toList();
-
-        // 等待所有任务完成
-        List<String> results = futures.stream()
-                .map(CompletableFuture::join)
-                .toList();
-
+        Tally tally = runTasks(executor, taskCount, env);
         Instant end = Instant.now();
         executor.shutdown();
         
-        return new Result("传统线程池 (200线程)", Duration.between(start, end), results.size(), poolSize);
+        return new Result("传统线程池 (" + poolSize + "线程)", Duration.between(start, end), tally, poolSize);
     }
 
     // 方案2：Cached线程池（无界）
     public static Result cachedThreadPool() {
+        return cachedThreadPool(IoWorkload.SLEEP, TASK_COUNT, IO_DELAY_MS);
+    }
+
+    public static Result cachedThreadPool(IoWorkload workload, int taskCount, int ioDelayMs) {
+        return withWorkload(workload, ioDelayMs, env -> cachedThreadPool(env, taskCount));
+    }
+
+    public static Result cachedThreadPool(IoWorkload.Environment env, int taskCount) {
         System.out.println("🔄 Cached线程池方案...");
         
         ExecutorService executor = Executors.newCachedThreadPool();
         
         Instant start = Instant.now();
-        List<CompletableFuture<String>> futures = IntStream.range(0, TASK_COUNT)
-                .mapToObj(i -> CompletableFuture
-                        .supplyAsync(() -> simulateIOOperation(i), executor))
-                .toList();
-
-        List<String> results = futures.stream()
-                .map(CompletableFuture::join)
-                .toList();
-
+        Tally tally = runTasks(executor, taskCount, env);
         Instant end = Instant.now();
         executor.shutdown();
         
-        return new Result("Cached线程池 (无界)", Duration.between(start, end), results.size(), -1);
+        return new Result("Cached线程池 (无界)", Duration.between(start, end), tally, -1);
     }
 
     // 方案3：虚拟线程（Project Loom）
     public static Result virtualThreads() {
+        return virtualThreads(IoWorkload.SLEEP, TASK_COUNT, IO_DELAY_MS);
+    }
+
+    public static Result virtualThreads(IoWorkload workload, int taskCount, int ioDelayMs) {
+        return withWorkload(workload, ioDelayMs, env -> virtualThreads(env, taskCount));
+    }
+
+    public static Result virtualThreads(IoWorkload.Environment env, int taskCount) {
         System.out.println("🚀 虚拟线程方案...");
         
         ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
         
         Instant start = Instant.now();
-        List<CompletableFuture<String>> futures = IntStream.range(0, TASK_COUNT)
-                .mapToObj(i -> CompletableFuture
-                        .supplyAsync(() -> simulateIOOperation(i), executor))
-                .toList();
-
-        List<String> results = futures.stream()
-                .map(CompletableFuture::join)
-                .toList();
-
+        Tally tally = runTasks(executor, taskCount, env);
         Instant end = Instant.now();
         executor.shutdown();
         
-        return new Result("虚拟线程", Duration.between(start, end), results.size(), -1);
+        return new Result("虚拟线程", Duration.between(start, end), tally, -1);
+    }
+
+    // Pinning 探测模式：在 JFR 录制下运行虚拟线程方案，输出按调用栈聚合的 pinning 直方图
+    public static Result virtualThreadsWithPinningReport(IoWorkload workload, int taskCount, int ioDelayMs) {
+        Result result;
+        PinningDetector.Report report;
+        try (PinningDetector detector = PinningDetector.start(Duration.ofMillis(1))) {
+            result = virtualThreads(workload, taskCount, ioDelayMs);
+            report = detector.stop();
+        }
+        report.print();
+        return result;
     }
 
     // 内存使用监控
@@ -119,15 +150,16 @@ public class VirtualThreadPerformanceDemo {
     }
 
     // 测试结果类
-    public record Result(String name, Duration duration, int completedTasks, int threadCount) {
+    public record Result(String name, Duration duration, Tally tasks, int threadCount) {
+        // 只统计成功完成的任务
         public double getTasksPerSecond() {
-            return completedTasks / (duration.toMillis() / 1000.0);
+            return tasks.completed() / (duration.toMillis() / 1000.0);
         }
 
         @Override
         public String toString() {
-            return String.format("%s: %d tasks in %d ms (%.1f tasks/sec) using %s threads", 
-                               name, completedTasks, duration.toMillis(), getTasksPerSecond(),
+            return String.format("%s: %d tasks in %d ms (%.1f tasks/sec, %d failed) using %s threads", 
+                               name, tasks.completed(), duration.toMillis(), getTasksPerSecond(), tasks.failed(),
                                threadCount > 0 ? String.valueOf(threadCount) : "virtual");
         }
     }
@@ -198,15 +230,32 @@ public class VirtualThreadPerformanceDemo {
     }
 
     public static void main(String[] args) {
+        List<String> options = List.of(args);
+        // --workload=SOCKET_READ 等切换任务负载，见 IoWorkload
+        IoWorkload workload = options.stream()
+                .filter(option -> option.startsWith("--workload="))
+                .map(option -> IoWorkload.valueOf(option.substring("--workload=".length())))
+                .findFirst()
+                .orElse(null);
+
+        // Pinning 探测：默认使用 synchronized 负载，1000个任务
+        if (options.contains("--pinning")) {
+            IoWorkload pinningWorkload = workload != null ? workload : IoWorkload.SYNCHRONIZED_PINNING;
+            System.out.println("=== 📌 虚拟线程 Pinning 探测（负载: " + pinningWorkload + "） ===\n");
+            System.out.println(virtualThreadsWithPinningReport(pinningWorkload, 1_000, IO_DELAY_MS));
+            return;
+        }
+
         runPerformanceTest();
         
         // 可选：运行完整的大规模测试（警告：会很慢）
-        if (args.length > 0 && "--full".equals(args[0])) {
-            System.out.println("\n⚠️  运行完整测试，请耐心等待...\n");
+        if (options.contains("--full")) {
+            IoWorkload fullWorkload = workload != null ? workload : IoWorkload.SLEEP;
+            System.out.println("\n⚠️  运行完整测试（负载: " + fullWorkload + "），请耐心等待...\n");
             
-            Result traditional = traditionalThreadPool();
-            Result cached = cachedThreadPool();
-            Result virtual = virtualThreads();
+            Result traditional = traditionalThreadPool(fullWorkload, TASK_COUNT, IO_DELAY_MS, 200);
+            Result cached = cachedThreadPool(fullWorkload, TASK_COUNT, IO_DELAY_MS);
+            Result virtual = virtualThreads(fullWorkload, TASK_COUNT, IO_DELAY_MS);
             
             System.out.println("\n=== 📊 完整测试结果 ===");
             System.out.println(traditional);
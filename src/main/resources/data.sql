@@ -0,0 +1,36 @@
+-- Sample data: 1,000 products, 100 users with 5 orders of 1-3 items each.
+-- INSERT IGNORE keeps re-runs against a persistent database from failing on existing rows.
+-- Recursive CTEs stay below MySQL's default cte_max_recursion_depth of 1000.
+INSERT IGNORE INTO products (id, name, price, category) VALUES
+    (1, 'iPhone', 999.0, 'Electronics'),
+    (2, 'Samsung Galaxy', 899.0, 'Electronics'),
+    (3, 'Google Pixel', 799.0, 'Electronics'),
+    (4, 'Laptop', 1200.0, 'Electronics'),
+    (5, 'Mouse', 25.0, 'Electronics'),
+    (6, 'Keyboard', 75.0, 'Electronics'),
+    (7, 'Smartphone', 699.99, 'Electronics'),
+    (8, 'Coffee Maker', 89.5, 'Home'),
+    (9, 'Desk Lamp', 35.0, 'Home'),
+    (10, 'Running Shoes', 120.0, 'Sports');
+
+INSERT IGNORE INTO products (id, name, price, category)
+WITH RECURSIVE seq (n) AS (SELECT 11 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000)
+SELECT n, CONCAT('Product-', n), 10.0 + MOD(n * 37, 990),
+       CASE MOD(n, 4) WHEN 0 THEN 'Electronics' WHEN 1 THEN 'Home' WHEN 2 THEN 'Sports' ELSE 'Books' END
+FROM seq;
+
+INSERT IGNORE INTO orders (id, user_id, total)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 500)
+SELECT n, FLOOR((n - 1) / 5) + 1, 0.0
+FROM seq;
+
+INSERT IGNORE INTO order_items (order_id, product_id, quantity)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 3)
+SELECT o.id, MOD((o.id * 3 + seq.n) * 7919, 1000) + 1, MOD(o.id + seq.n, 5) + 1
+FROM orders o JOIN seq ON seq.n <= MOD(o.id, 3) + 1;
+
+UPDATE orders SET total = (
+    SELECT COALESCE(SUM(oi.quantity * p.price), 0)
+    FROM order_items oi JOIN products p ON p.id = oi.product_id
+    WHERE oi.order_id = orders.id)
+WHERE total = 0;
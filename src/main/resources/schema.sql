@@ -0,0 +1,24 @@
+-- Product catalog and orders; runs on every start (spring.sql.init.mode=always), so it must be idempotent.
+-- Works on MySQL 8 and on H2 in MySQL mode.
+CREATE TABLE IF NOT EXISTS products (
+    id       BIGINT       NOT NULL PRIMARY KEY,
+    name     VARCHAR(255) NOT NULL,
+    price    DOUBLE       NOT NULL,
+    category VARCHAR(100) NOT NULL,
+    INDEX idx_products_price (price)
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id      BIGINT NOT NULL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    total   DOUBLE NOT NULL,
+    INDEX idx_orders_user (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    order_id   BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity   INT    NOT NULL,
+    PRIMARY KEY (order_id, product_id),
+    CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
@@ -0,0 +1,76 @@
+package com.brian.springstarter.examples;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long WINDOW = Duration.ofMillis(100).toNanos();
+
+    private long now;
+    private final AdaptiveConcurrencyLimiter limiter =
+            new AdaptiveConcurrencyLimiter("test", 10, 4, 200, WINDOW, () -> now);
+
+    @Test
+    void rejectsRequestsOverTheLimit() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.inFlight()).isEqualTo(10);
+        assertThat(limiter.rejected()).isOne();
+
+        limiter.cancel();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void growsWhileLatencyStaysFlatAndShrinksOnceRequestsQueue() {
+        for (int i = 0; i < 20; i++) {
+            saturatedWindow(Duration.ofMillis(10));
+        }
+        int grown = limiter.limit();
+        assertThat(grown).isGreaterThan(50);
+
+        // Latency doubles: about half of the in-flight requests are waiting in a queue
+        for (int i = 0; i < 20; i++) {
+            saturatedWindow(Duration.ofMillis(20));
+        }
+        assertThat(limiter.limit()).isLessThan(grown);
+    }
+
+    @Test
+    void doesNotGrowWhileTrafficStaysFarBelowTheLimit() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            now += WINDOW;
+            limiter.release(Duration.ofMillis(10).toNanos(), false);
+        }
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void backsOffWhenRequestsFailFromOverload() {
+        assertThat(limiter.tryAcquire()).isTrue();
+        now += WINDOW;
+        limiter.release(Duration.ofMillis(10).toNanos(), true);
+
+        assertThat(limiter.limit()).isEqualTo(9);
+    }
+
+    // Fills the limit, then completes every request with the given latency; the last one ends the window
+    private void saturatedWindow(Duration latency) {
+        int permits = 0;
+        while (limiter.tryAcquire()) {
+            permits++;
+        }
+        for (int i = 0; i < permits - 1; i++) {
+            limiter.release(latency.toNanos(), false);
+        }
+        now += WINDOW;
+        limiter.release(latency.toNanos(), false);
+    }
+}
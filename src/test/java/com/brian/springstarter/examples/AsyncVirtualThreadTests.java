@@ -0,0 +1,48 @@
+package com.brian.springstarter.examples;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// spring.threads.virtual.enabled in the tomcat-vt profile makes Boot's applicationTaskExecutor, which
+// @EnableAsync picks up, start a virtual thread per task
+@SpringBootTest
+@ActiveProfiles("tomcat-vt")
+class AsyncVirtualThreadTests {
+
+    @Autowired
+    AsyncProbe probe;
+
+    @Test
+    void asyncMethodsRunOnVirtualThreads() {
+        Thread thread = probe.currentThread().join();
+
+        assertThat(thread).isNotSameAs(Thread.currentThread());
+        assertThat(thread.isVirtual()).isTrue();
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        AsyncProbe asyncProbe() {
+            return new AsyncProbe();
+        }
+    }
+
+    static class AsyncProbe {
+
+        @Async
+        public CompletableFuture<Thread> currentThread() {
+            return CompletableFuture.completedFuture(Thread.currentThread());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.brian.springstarter.examples;
+
+import io.netty.channel.DefaultEventLoopGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockingDetectorTests {
+
+    private final BlockingDetector detector = BlockingDetector.start(Duration.ofMillis(50), 16);
+
+    @AfterEach
+    void stop() {
+        detector.close();
+    }
+
+    @Test
+    void flagsBlockingCallsOnTheParallelScheduler() {
+        detector.watchReactorSchedulers();
+
+        Mono.fromRunnable(() -> sleep(10)).subscribeOn(Schedulers.parallel()).block();
+        assertThat(detector.sites()).isEmpty();
+
+        Mono.fromRunnable(() -> sleep(300)).subscribeOn(Schedulers.parallel()).block();
+        assertThat(detector.detections(BlockingDetector.Kind.SCHEDULER)).isOne();
+        assertThat(detector.sites()).singleElement().satisfies(site -> {
+            assertThat(site.kind()).isEqualTo(BlockingDetector.Kind.SCHEDULER);
+            assertThat(site.stack()).contains("java.lang.Thread.sleep").contains("BlockingDetectorTests.sleep");
+            assertThat(site.longest()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        });
+    }
+
+    @Test
+    void flagsBlockingCallsOnAnEventLoop() throws Exception {
+        DefaultEventLoopGroup loops = new DefaultEventLoopGroup(1);
+        try {
+            detector.watch(loops);
+            loops.submit(() -> sleep(300)).get(5, TimeUnit.SECONDS);
+
+            assertThat(detector.detections(BlockingDetector.Kind.EVENT_LOOP)).isOne();
+            assertThat(detector.sites()).singleElement()
+                    .satisfies(site -> assertThat(site.stack()).contains("BlockingDetectorTests.sleep"));
+        } finally {
+            loops.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+        }
+    }
+
+    // Same blocking call as the thread demos in JDK8Comparison
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.brian.springstarter.examples;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CircuitBreaker breaker = new CircuitBreaker("test",
+            new CircuitBreaker.Settings(10, 4, 0.5, Duration.ofMillis(200), 0.5, Duration.ofMillis(100), 2),
+            e -> !(e instanceof IllegalArgumentException), meterRegistry);
+
+    @Test
+    void opensOnFailureRateAndClosesAfterSuccessfulTrials() throws InterruptedException {
+        call(Mono.just("ok"));
+        call(Mono.error(new IllegalStateException()));
+        call(Mono.error(new IllegalStateException()));
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        call(Mono.just("ok"));
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int[] subscribed = {0};
+        assertThatThrownBy(() -> breaker.mono(Mono.fromCallable(() -> ++subscribed[0])).block())
+                .isInstanceOf(CircuitOpenException.class);
+        assertThat(subscribed[0]).isZero();
+
+        Thread.sleep(150);
+        call(Mono.just("ok"));
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        call(Mono.just("ok"));
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        assertThat(meterRegistry.get("starter.circuit.transitions").tag("to", "OPEN").counter().count()).isOne();
+        assertThat(meterRegistry.get("starter.circuit.rejected").counter().count()).isOne();
+        assertThat(meterRegistry.get("starter.circuit.state").gauge().value()).isZero();
+    }
+
+    @Test
+    void halfOpenAdmitsLimitedTrialsAndReopensOnFailure() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            call(Mono.error(new IllegalStateException()));
+        }
+        Thread.sleep(150);
+
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        breaker.mono(first.asMono()).subscribe(value -> { }, e -> { });
+        breaker.mono(second.asMono()).subscribe(value -> { }, e -> { });
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(() -> call(Mono.just("third"))).isInstanceOf(CircuitOpenException.class);
+
+        first.tryEmitError(new IllegalStateException());
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        // The other trial was admitted before the breaker reopened and no longer counts
+        second.tryEmitValue("late");
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void ignoresErrorsThatAreNotFailuresAndCountsSlowCalls() {
+        for (int i = 0; i < 10; i++) {
+            call(Mono.error(new IllegalArgumentException()));
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        for (int i = 0; i < 5; i++) {
+            call(Mono.just("slow").delayElement(Duration.ofMillis(220)));
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void call(Mono<String> call) {
+        try {
+            breaker.mono(call).block();
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            // The call's own failure, already recorded by the breaker
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.brian.springstarter.examples;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Routes as configured in application.properties
+class ConcurrencyLimitFilterTests {
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties(), new SimpleMeterRegistry());
+
+    @Test
+    void endpointsWithDifferentLatenciesDoNotShareALimit() {
+        assertThat(route(HttpMethod.GET, "/api/v4/products/3")).isEqualTo("product");
+        assertThat(route(HttpMethod.PUT, "/api/v4/products/3")).isEqualTo("product-writes");
+        assertThat(route(HttpMethod.DELETE, "/api/v4/products/3")).isEqualTo("product-writes");
+        assertThat(route(HttpMethod.GET, "/api/v4/products/3/details")).isEqualTo("product-details");
+        assertThat(route(HttpMethod.GET, "/api/v4/products/analytics")).isEqualTo("product-analytics");
+        assertThat(route(HttpMethod.GET, "/api/v4/products/search")).isEqualTo("search");
+        assertThat(route(HttpMethod.GET, "/api/v4/users/1/orders")).isEqualTo("user-orders");
+        assertThat(route(HttpMethod.POST, "/api/v4/orders")).isEqualTo("order-ingest");
+    }
+
+    @Test
+    void methodsOutsideARouteFallBackToTheDefaults() {
+        assertThat(route(HttpMethod.GET, "/api/v4/orders")).isEqualTo(ConcurrencyLimitFilter.DEFAULT_ROUTE);
+        assertThat(route(HttpMethod.POST, "/api/v4/products/3")).isEqualTo(ConcurrencyLimitFilter.DEFAULT_ROUTE);
+    }
+
+    @Test
+    void streamsAreNotLimited() {
+        assertThat(filter.limiterFor(HttpMethod.GET, PathContainer.parsePath("/api/v4/notifications"))).isNull();
+        assertThat(filter.limiterFor(HttpMethod.GET, PathContainer.parsePath("/actuator/health"))).isNull();
+    }
+
+    private String route(HttpMethod method, String path) {
+        return filter.limiterFor(method, PathContainer.parsePath(path)).name();
+    }
+
+    private static ConcurrencyLimitProperties properties() {
+        try {
+            MapConfigurationPropertySource source = new MapConfigurationPropertySource(
+                    PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties")));
+            return new Binder(source).bindOrCreate("starter.concurrency-limit", ConcurrencyLimitProperties.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
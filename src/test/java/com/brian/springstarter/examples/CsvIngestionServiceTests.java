@@ -0,0 +1,62 @@
+package com.brian.springstarter.examples;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvIngestionServiceTests {
+
+    @TempDir
+    Path root;
+
+    private Path localDir;
+    private CsvIngestionService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        localDir = Files.createDirectory(root.resolve("data"));
+        service = new CsvIngestionService(new CsvProperties(localDir, 2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void resolvesFilesAndLinksInsideTheLocalDirectory() throws IOException {
+        Path sales = Files.writeString(localDir.resolve("sales.csv"), "Laptop,999.99,2\n");
+        Files.createSymbolicLink(localDir.resolve("latest.csv"), sales);
+
+        assertThat(service.resolveLocalFile("sales.csv")).isEqualTo(sales.toRealPath());
+        assertThat(service.resolveLocalFile("latest.csv")).isEqualTo(sales.toRealPath());
+    }
+
+    @Test
+    void rejectsPathsAndLinksLeadingOutOfTheLocalDirectory() throws IOException {
+        Path secret = Files.writeString(root.resolve("secret.csv"), "Laptop,999.99,2\n");
+        Files.createSymbolicLink(localDir.resolve("escape.csv"), secret);
+        Files.createSymbolicLink(localDir.resolve("outside"), root);
+
+        assertRejected("../secret.csv", HttpStatus.BAD_REQUEST);
+        assertRejected("escape.csv", HttpStatus.BAD_REQUEST);
+        assertRejected("outside/secret.csv", HttpStatus.BAD_REQUEST);
+        assertRejected("missing.csv", HttpStatus.NOT_FOUND);
+    }
+
+    private void assertRejected(String fileName, HttpStatus status) {
+        assertThatThrownBy(() -> service.resolveLocalFile(fileName))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(status));
+    }
+}
@@ -0,0 +1,151 @@
+package com.brian.springstarter.examples;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvRevenueParserTests {
+
+    record Row(String name, double price, int quantity) {
+    }
+
+    private static final String SAMPLE = "Laptop,999.99,2\r\n"
+            + "\n"
+            + "Mouse,25.5,10\n"
+            + "no commas here\n"
+            + "   \r\n"
+            + "Keyboard,abc,1\n"
+            + "Monitor,-12.25,3\r\n"
+            + "Cable,0.1,2147483648\n"
+            + "Phone,699,1";
+
+    private static final List<Row> SAMPLE_ROWS = List.of(
+            new Row("Laptop", 999.99, 2),
+            new Row("Mouse", 25.5, 10),
+            new Row("Monitor", -12.25, 3),
+            new Row("Phone", 699.0, 1));
+
+    @Test
+    void parsesWholeInput() {
+        Parsed parsed = parse(SAMPLE, SAMPLE.length());
+        assertThat(parsed.rows).containsExactlyElementsOf(SAMPLE_ROWS);
+        // "no commas here", "Keyboard,abc,1" and the out-of-range quantity; blank lines are not counted
+        assertThat(parsed.parser.rows()).isEqualTo(4);
+        assertThat(parsed.parser.skippedRows()).isEqualTo(3);
+    }
+
+    @Test
+    void sameRowsWhereverTheInputIsSplit() {
+        byte[] bytes = SAMPLE.getBytes(StandardCharsets.UTF_8);
+        for (int split = 0; split <= bytes.length; split++) {
+            List<Row> rows = new ArrayList<>();
+            CsvRevenueParser parser = new CsvRevenueParser(collect(rows));
+            parser.feed(ByteBuffer.wrap(bytes, 0, split));
+            parser.feed(ByteBuffer.wrap(bytes, split, bytes.length - split));
+            parser.finish();
+            assertThat(rows).as("split at %d", split).containsExactlyElementsOf(SAMPLE_ROWS);
+            assertThat(parser.skippedRows()).as("split at %d", split).isEqualTo(3);
+        }
+        for (int chunkSize = 1; chunkSize <= 8; chunkSize++) {
+            assertThat(parse(SAMPLE, chunkSize).rows).as("%d-byte chunks", chunkSize)
+                    .containsExactlyElementsOf(SAMPLE_ROWS);
+        }
+    }
+
+    @Test
+    void lineLongerThanTheCarryBufferSurvivesSplitting() {
+        String name = "x".repeat(1_000);
+        assertThat(parse(name + ",1.5,2\n" + name + ",2,1\n", 7).rows)
+                .containsExactly(new Row(name, 1.5, 2), new Row(name, 2.0, 1));
+    }
+
+    @Test
+    void crlfLineEndingsAreStripped() {
+        assertThat(parse("A,1.5,2\r\nB,2,3\r\n", 4).rows).containsExactly(new Row("A", 1.5, 2), new Row("B", 2.0, 3));
+    }
+
+    @Test
+    void lastLineWithoutNewlineIsParsedOnFinish() {
+        List<Row> rows = new ArrayList<>();
+        CsvRevenueParser parser = new CsvRevenueParser(collect(rows));
+        parser.feed(ByteBuffer.wrap("A,1,1\nB,2,2".getBytes(StandardCharsets.UTF_8)));
+        assertThat(rows).containsExactly(new Row("A", 1.0, 1));
+
+        parser.finish();
+        assertThat(rows).containsExactly(new Row("A", 1.0, 1), new Row("B", 2.0, 2));
+        parser.finish();
+        assertThat(rows).hasSize(2);
+    }
+
+    @Test
+    void malformedAndEmptyRowsAreSkipped() {
+        String csv = "\n\r\n \t\n,\n,,\nA\nA,1\nA,,1\nA,1,\nA,x,1\nA,1,x\nA,1,1.5\nA,1,99999999999\nA,1e,1\nA,1e308,10\n";
+        Parsed parsed = parse(csv, csv.length());
+        assertThat(parsed.rows).isEmpty();
+        assertThat(parsed.parser.rows()).isZero();
+        assertThat(parsed.parser.skippedRows()).isEqualTo(12);
+
+        // An empty name is still a row; more than three fields make the quantity malformed
+        assertThat(parse(",1,2\nA,1,2,3\n", 64).rows).containsExactly(new Row("", 1.0, 2));
+    }
+
+    @Test
+    void numbersMatchDoubleParseDouble() {
+        List<String> samples = new ArrayList<>(List.of(
+                "0", "-0", "+3.5", "10.", ".5", "699.99", "0.1", "0.3", "-5", "1e3", "2.5E-3",
+                "9007199254740991", "9007199254740993", "123456789012345678901", "0.1234567890123456789012345",
+                "0.0000000000000000000001", "1.7976931348623157E308", " 42 "));
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long mantissa = random.nextLong(1L << random.nextInt(1, 63));
+            int fractionDigits = random.nextInt(0, 25);
+            String digits = String.format("%0" + (fractionDigits + 1) + "d", mantissa);
+            int dot = digits.length() - fractionDigits;
+            String number = fractionDigits == 0 ? digits : digits.substring(0, dot) + "." + digits.substring(dot);
+            samples.add(random.nextBoolean() ? number : "-" + number);
+        }
+        for (String sample : samples) {
+            byte[] bytes = ("#" + sample + "#").getBytes(StandardCharsets.US_ASCII);
+            double parsed = CsvRevenueParser.parseDouble(ByteBuffer.wrap(bytes), 1, bytes.length - 1);
+            assertThat(Double.doubleToLongBits(parsed)).as(sample)
+                    .isEqualTo(Double.doubleToLongBits(Double.parseDouble(sample)));
+        }
+    }
+
+    @Test
+    void malformedNumbersAreNaN() {
+        for (String sample : List.of("", "-", "+", ".", "1.2.3", "abc", "1,5", "--1")) {
+            byte[] bytes = sample.getBytes(StandardCharsets.US_ASCII);
+            assertThat(CsvRevenueParser.parseDouble(ByteBuffer.wrap(bytes), 0, bytes.length)).as(sample).isNaN();
+        }
+    }
+
+    private record Parsed(CsvRevenueParser parser, List<Row> rows) {
+    }
+
+    // Feeds csv in chunkSize pieces, each in its own buffer, then finishes
+    private static Parsed parse(String csv, int chunkSize) {
+        byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+        List<Row> rows = new ArrayList<>();
+        CsvRevenueParser parser = new CsvRevenueParser(collect(rows));
+        for (int start = 0; start < bytes.length; start += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - start);
+            byte[] chunk = new byte[length];
+            System.arraycopy(bytes, start, chunk, 0, length);
+            parser.feed(ByteBuffer.wrap(chunk));
+        }
+        parser.finish();
+        return new Parsed(parser, rows);
+    }
+
+    private static CsvRevenueParser.RowHandler collect(List<Row> rows) {
+        return (line, nameStart, nameEnd, price, quantity) ->
+                rows.add(new Row(CsvRevenueParser.decode(line, nameStart, nameEnd), price, quantity));
+    }
+}
@@ -0,0 +1,82 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.ProductClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "starter.product-client.hedging.enabled=true",
+        "starter.product-client.hedging.max-delay=200ms",
+        "starter.product-client.retry-budget.capacity=20"
+})
+class HedgingProductClientTests {
+
+    static final ProductStubServer upstream = ProductStubServer.start();
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("starter.product-client.base-url", upstream::baseUrl);
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @AfterEach
+    void heal() {
+        upstream.healthy();
+    }
+
+    @Autowired
+    ProductClient productClient;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void hedgingCutsTheSlowTailWithoutMultiplyingLoad() {
+        // 3% of responses take 1s: without hedging that is the p99
+        upstream.slowResponses(0.03, Duration.ofSeconds(1));
+        calls(300);
+
+        int requestsBefore = upstream.requests();
+        List<Long> latencies = calls(500);
+
+        long p99 = latencies.get((int) (latencies.size() * 0.99));
+        assertThat(p99).isLessThan(Duration.ofMillis(500).toNanos());
+        assertThat(upstream.requests() - requestsBefore).isLessThan(500 + 500 / 10 + 20);
+        assertThat(meterRegistry.get("starter.product-client.hedges").tag("outcome", "won").counter().count())
+                .isPositive();
+    }
+
+    @Test
+    void retriesFailedCallsWithinTheBudget() {
+        upstream.failures(0.05);
+
+        assertThat(calls(300)).hasSize(300);
+        assertThat(meterRegistry.get("starter.product-client.retries").counter().count()).isPositive();
+    }
+
+    // Sorted call latencies in nanoseconds; fails if any call fails
+    private List<Long> calls(int count) {
+        return Flux.range(1, count)
+                .flatMap(id -> productClient.getProduct((long) id).elapsed(), 8)
+                .map(timed -> Duration.ofMillis(timed.getT1()).toNanos())
+                .sort()
+                .collectList()
+                .block();
+    }
+}
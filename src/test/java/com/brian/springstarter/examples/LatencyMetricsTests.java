@@ -0,0 +1,85 @@
+package com.brian.springstarter.examples;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyMetricsTests {
+
+    private final LatencyMetricsProperties properties = new LatencyMetricsProperties("/api/v4",
+            new LatencyMetricsProperties.Histogram(List.of(Duration.ofMillis(50)), Duration.ofMillis(1), Duration.ofSeconds(10)),
+            new LatencyMetricsProperties.Histogram(List.of(Duration.ofSeconds(1)), Duration.ofMillis(1), Duration.ofSeconds(30)));
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    LatencyMetricsTests() {
+        meterRegistry.config().meterFilter(new LatencyMetricsConfiguration().latencyHistograms(properties));
+    }
+
+    @Test
+    void addsHistogramBucketsToApiRoutesOnly() {
+        Timer api = Timer.builder("http.server.requests").tag("uri", "/api/v4/products/{id}").register(meterRegistry);
+        Timer actuator = Timer.builder("http.server.requests").tag("uri", "/actuator/health").register(meterRegistry);
+        api.record(Duration.ofMillis(20));
+        actuator.record(Duration.ofMillis(20));
+
+        CountAtBucket[] buckets = api.takeSnapshot().histogramCounts();
+        assertThat(buckets).isNotEmpty();
+        assertThat(Arrays.stream(buckets).filter(bucket -> bucket.bucket() == Duration.ofMillis(50).toNanos()))
+                .singleElement()
+                .extracting(CountAtBucket::count)
+                .isEqualTo(1.0);
+        assertThat(actuator.takeSnapshot().histogramCounts()).isEmpty();
+    }
+
+    @Test
+    void timesFirstEventAndGapsPerSubscriber() {
+        StreamProperties streamProperties = new StreamProperties(16, BroadcastStream.SlowConsumerPolicy.DROP_OLDEST,
+                false, false);
+        BroadcastStream<Long> stream = StreamConfiguration.broadcast("test",
+                Flux.interval(Duration.ofMillis(50)), streamProperties, meterRegistry);
+        try {
+            stream.subscribe().take(3).blockLast(Duration.ofSeconds(5));
+        } finally {
+            stream.dispose();
+        }
+
+        Timer firstEvent = meterRegistry.get("starter.sse.first-event").tag("stream", "test").timer();
+        Timer eventGap = meterRegistry.get("starter.sse.event-gap").tag("stream", "test").timer();
+        assertThat(firstEvent.count()).isOne();
+        assertThat(eventGap.count()).isEqualTo(2);
+        assertThat(eventGap.takeSnapshot().histogramCounts()).isNotEmpty();
+    }
+
+    @Test
+    void bridgesAreNeitherCountedNorTimed() {
+        StreamProperties streamProperties = new StreamProperties(16, BroadcastStream.SlowConsumerPolicy.DROP_OLDEST,
+                false, false);
+        BroadcastStream<Long> stream = StreamConfiguration.broadcast("bridged",
+                Flux.interval(Duration.ofMillis(50)), streamProperties, meterRegistry);
+        List<Double> subscribers = new CopyOnWriteArrayList<>();
+        try {
+            stream.bridge()
+                    .doOnNext(i -> subscribers.add(
+                            meterRegistry.get("starter.stream.subscribers").tag("stream", "bridged").gauge().value()))
+                    .take(3)
+                    .blockLast(Duration.ofSeconds(5));
+        } finally {
+            stream.dispose();
+        }
+
+        assertThat(subscribers).containsExactly(0.0, 0.0, 0.0);
+        assertThat(meterRegistry.get("starter.sse.first-event").tag("stream", "bridged").timer().count()).isZero();
+        assertThat(meterRegistry.get("starter.sse.event-gap").tag("stream", "bridged").timer().count()).isZero();
+    }
+}
@@ -0,0 +1,135 @@
+package com.brian.springstarter.examples;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Prices are multiples of 0.25, so totals are exact whatever order the chunks are merged in
+class MappedCsvProcessorTests {
+
+    @TempDir
+    Path dir;
+
+    private final MappedCsvProcessor processor = new MappedCsvProcessor(4);
+
+    @AfterEach
+    void close() {
+        processor.close();
+    }
+
+    @Test
+    void chunkBoundariesFallOnLineStarts() throws IOException {
+        Path file = write(randomCsv(500, new Random(1)));
+        try (FileChannel channel = FileChannel.open(file)) {
+            long size = channel.size();
+            for (int parallelism = 1; parallelism <= 16; parallelism++) {
+                long[] boundaries = MappedCsvProcessor.chunkBoundaries(channel, parallelism);
+                assertThat(boundaries).hasSize(parallelism + 1).isSorted();
+                assertThat(boundaries[0]).isZero();
+                assertThat(boundaries[parallelism]).isEqualTo(size);
+                for (int i = 1; i < parallelism; i++) {
+                    long boundary = boundaries[i];
+                    assertThat(boundary == size || byteAt(channel, boundary - 1) == '\n')
+                            .as("boundary %d of %d at %d", i, parallelism, boundary)
+                            .isTrue();
+                }
+            }
+        }
+    }
+
+    @Test
+    void rowsAcrossTheEvenSplitPointsAreCountedOnce() throws IOException {
+        // Four long lines: every size * i / 4 split point lands in the middle of a row
+        String csv = "a".repeat(100) + ",1.25,2\n"
+                + "b".repeat(100) + ",2.5,4\n"
+                + "a".repeat(100) + ",0.75,4\n"
+                + "c".repeat(100) + ",10,1\n";
+
+        assertThat(processor.revenueByProduct(write(csv))).isEqualTo(Map.of(
+                "a".repeat(100), 5.5,
+                "b".repeat(100), 10.0,
+                "c".repeat(100), 10.0));
+    }
+
+    @Test
+    void filesSmallerThanOneChunkPerThread() throws IOException {
+        assertThat(processor.revenueByProduct(write(""))).isEmpty();
+        assertThat(processor.revenueByProduct(write("Laptop,999.5,2"))).isEqualTo(Map.of("Laptop", 1999.0));
+        assertThat(processor.revenueByProduct(write("Laptop,999.5,2\nMouse,25.25,4\n")))
+                .isEqualTo(Map.of("Laptop", 1999.0, "Mouse", 101.0));
+    }
+
+    @Test
+    void matchesTheStreamingPath() throws IOException {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            Path file = write(randomCsv(random.nextInt(1, 2_000), random));
+            CsvRevenueTotals expected = new CsvRevenueTotals();
+            CsvRevenueParser parser = new CsvRevenueParser(expected);
+            parser.feed(ByteBuffer.wrap(Files.readAllBytes(file)));
+            parser.finish();
+            Map<String, Double> streamed = streaming(file, 1 + random.nextInt(64));
+
+            assertThat(processor.revenueByProduct(file)).isEqualTo(streamed).isEqualTo(merged(expected));
+        }
+    }
+
+    private static Map<String, Double> streaming(Path file, int bufferSize) {
+        CsvIngestionService service = new CsvIngestionService(new CsvProperties(file.getParent(), 1));
+        try {
+            return service.revenueByProduct(
+                    DataBufferUtils.read(file, DefaultDataBufferFactory.sharedInstance, bufferSize)).block();
+        } finally {
+            service.destroy();
+        }
+    }
+
+    private static Map<String, Double> merged(CsvRevenueTotals totals) {
+        Map<String, Double> result = new TreeMap<>();
+        totals.mergeInto(result);
+        return result;
+    }
+
+    // Mostly valid rows, plus CRLF endings, blank and malformed lines and sometimes no trailing newline
+    private static String randomCsv(int rows, Random random) {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            switch (random.nextInt(20)) {
+                case 0 -> csv.append('\n');
+                case 1 -> csv.append("not a row\n");
+                case 2 -> csv.append("product-").append(random.nextInt(50)).append(",abc,1\n");
+                default -> csv.append("product-").append(random.nextInt(50)).append(',')
+                        .append(random.nextInt(0, 4_000) / 4.0).append(',')
+                        .append(random.nextInt(1, 10)).append(random.nextBoolean() ? "\n" : "\r\n");
+            }
+        }
+        if (random.nextBoolean() && !csv.isEmpty()) {
+            csv.setLength(csv.length() - 1);
+        }
+        return csv.toString();
+    }
+
+    private Path write(String csv) throws IOException {
+        return Files.write(Files.createTempFile(dir, "revenue", ".csv"), csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte byteAt(FileChannel channel, long position) throws IOException {
+        ByteBuffer one = ByteBuffer.allocate(1);
+        channel.read(one, position);
+        return one.get(0);
+    }
+}
@@ -0,0 +1,72 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.OrderItem;
+import com.brian.springstarter.examples.SpringBoot4Features.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// User 1 has 5 orders with up to 3 items each: far more item and price lookups than the limit allows at once
+@SpringBootTest(properties = {"starter.orders.max-concurrency=4", "starter.orders.simulated-latency=10ms"})
+class OrderAggregationTests {
+
+    @Autowired
+    OrderAggregationService aggregation;
+
+    @Autowired
+    CountingDownstream downstream;
+
+    @Test
+    void boundsInFlightCallsPerRequest() {
+        assertThat(aggregation.getUserOrders(1L).collectList().block()).hasSize(5);
+
+        assertThat(downstream.peak).hasValue(4);
+        assertThat(downstream.inFlight).hasValue(0);
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        @Primary
+        CountingDownstream countingDownstream(OrderRepository orders, ProductService products,
+                                              OrderAggregationProperties properties, ReactorSchedulers schedulers) {
+            return new CountingDownstream(orders, products, properties, schedulers);
+        }
+    }
+
+    static class CountingDownstream extends OrderDownstream {
+
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+
+        CountingDownstream(OrderRepository orders, ProductService products, OrderAggregationProperties properties,
+                           ReactorSchedulers schedulers) {
+            super(orders, products, properties, schedulers);
+        }
+
+        @Override
+        public Mono<List<OrderItem>> items(long orderId) {
+            return counted(super.items(orderId));
+        }
+
+        @Override
+        public Mono<Double> price(long productId) {
+            return counted(super.price(productId));
+        }
+
+        private <T> Mono<T> counted(Mono<T> call) {
+            return call.doOnSubscribe(subscription -> peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        }
+    }
+}
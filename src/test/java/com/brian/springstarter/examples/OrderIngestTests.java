@@ -0,0 +1,103 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.OrderIngestService.OrderAck;
+import com.brian.springstarter.examples.SpringBoot4Features.Order;
+import com.brian.springstarter.examples.SpringBoot4Features.OrderItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+// A long max-delay so that concurrently submitted orders reliably land in the same batch
+@SpringBootTest(properties = "starter.order-ingest.max-delay=200ms")
+class OrderIngestTests {
+
+    @Autowired
+    OrderIngestService ingest;
+
+    @Autowired
+    OrderRepository orders;
+
+    @Autowired
+    OrderAggregationService aggregation;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void storesOrdersAndAcknowledgesEachInRequestOrder() {
+        List<OrderAck> acks = ingest.ingest(List.of(
+                order(900L, new OrderItem(1L, 2, 999.0)),
+                order(900L, new OrderItem(2L, 1, 899.0), new OrderItem(3L, 1, 799.0)))).collectList().block();
+
+        assertThat(acks).extracting(OrderAck::userId, OrderAck::status)
+                .containsExactly(tuple(900L, OrderAck.Status.STORED), tuple(900L, OrderAck.Status.STORED));
+        assertThat(orders.findOrderIds(900).block()).containsExactly(acks.get(0).orderId(), acks.get(1).orderId());
+        assertThat(orders.findItems(acks.get(1).orderId()).block())
+                .extracting(OrderItem::productId, OrderItem::quantity)
+                .containsExactly(tuple(2L, 1), tuple(3L, 1));
+    }
+
+    @Test
+    void pricesItemsFromTheCatalogNotFromTheClient() {
+        OrderAck ack = ingest.ingest(List.of(order(904L, new OrderItem(6L, 2, 0.01), new OrderItem(9L, 1, 0.01))))
+                .blockLast();
+
+        // Keyboard 75.0 and Desk Lamp 35.0
+        assertThat(ack.total()).isEqualTo(2 * 75.0 + 35.0);
+        assertThat(aggregation.getUserOrders(904L).collectList().block())
+                .extracting(Order::id, Order::total)
+                .containsExactly(tuple(ack.orderId(), ack.total()));
+    }
+
+    @Test
+    void coalescesConcurrentRequestsIntoOneWrite() {
+        long batchesBefore = meterRegistry.get("starter.orders.ingest.batch.size").summary().count();
+
+        List<OrderAck> acks = Flux.range(0, 50)
+                .flatMap(i -> ingest.ingest(List.of(order(901L, new OrderItem(i + 1L, 1, 10.0)))))
+                .collectList()
+                .block();
+
+        assertThat(acks).hasSize(50).extracting(OrderAck::status).containsOnly(OrderAck.Status.STORED);
+        assertThat(meterRegistry.get("starter.orders.ingest.batch.size").summary().count() - batchesBefore)
+                .isLessThan(5);
+        assertThat(orders.findOrderIds(901).block()).hasSize(50);
+    }
+
+    @Test
+    void rejectsInvalidOrdersBeforeQueueingAny() {
+        Flux<OrderAck> acks = ingest.ingest(List.of(
+                order(902L, new OrderItem(1L, 1, 10.0)),
+                order(902L, new OrderItem(1L, 1, 10.0), new OrderItem(1L, 2, 10.0))));
+
+        assertThatThrownBy(acks::blockLast).isInstanceOf(ResponseStatusException.class);
+        assertThat(orders.findOrderIds(902).block()).isEmpty();
+    }
+
+    @Test
+    void rejectsUnknownProductsBeforeQueueingAny() {
+        Flux<OrderAck> acks = ingest.ingest(List.of(
+                order(903L, new OrderItem(1L, 1, 10.0)),
+                order(903L, new OrderItem(2L, 1, 10.0), new OrderItem(999_999L, 1, 10.0))));
+
+        assertThatThrownBy(acks::blockLast).isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+            assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(e.getReason()).contains("999999");
+        });
+        assertThat(orders.findOrderIds(903).block()).isEmpty();
+    }
+
+    private static Order order(Long userId, OrderItem... items) {
+        return new Order(null, userId, List.of(items), 0.0);
+    }
+}
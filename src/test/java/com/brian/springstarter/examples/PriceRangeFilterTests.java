@@ -0,0 +1,45 @@
+package com.brian.springstarter.examples;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// The Gradle test task runs with --add-modules jdk.incubator.vector; elsewhere (an IDE run, say) the module may
+// be missing, in which case available() must be the scalar filter and the Vector API filter cannot be compared
+class PriceRangeFilterTests {
+
+    private static final boolean VECTOR_MODULE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    @Test
+    void availableFilterMatchesTheModulesOfThisJvm() {
+        assertThat(PriceRangeFilter.available())
+                .isInstanceOf(VECTOR_MODULE ? VectorPriceRangeFilter.class : ScalarPriceRangeFilter.class);
+    }
+
+    @Test
+    void vectorAndScalarFiltersSelectTheSameRows() {
+        assumeTrue(VECTOR_MODULE, "run with --add-modules jdk.incubator.vector");
+        Random random = new Random(11);
+        double[] prices = new double[1_000];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = random.nextInt(10) == 0 ? Double.NaN : random.nextInt(1_000);
+        }
+        PriceRangeFilter scalar = new ScalarPriceRangeFilter();
+        PriceRangeFilter vector = new VectorPriceRangeFilter();
+
+        // Sizes around word boundaries exercise the partial last word
+        for (int size : new int[] {0, 1, 63, 64, 65, 127, 128, 999, 1_000}) {
+            for (double[] range : new double[][] {{0, 1_000}, {100, 200}, {500, 500}, {300, 100}}) {
+                long[] expected = scalar.select(prices, size, range[0], range[1]);
+                assertThat(vector.select(prices, size, range[0], range[1])).isEqualTo(expected);
+                for (int row = 0; row < size; row++) {
+                    boolean selected = (expected[row >>> 6] & (1L << row)) != 0;
+                    assertThat(selected).isEqualTo(prices[row] >= range[0] && prices[row] <= range[1]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import com.brian.springstarter.examples.SpringBoot4Features.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// Seeded from the 1,000 products in data.sql; ids from 90,000 on are free for this test
+@SpringBootTest
+class ProductAnalyticsTests {
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    ProductAnalytics analytics;
+
+    @Test
+    void followsInsertsUpdatesAndDeletes() {
+        ProductAnalytics.Snapshot before = productService.getProductAnalytics().block();
+        assertThat(before.categories()).containsExactly("Books", "Electronics", "Home", "Sports");
+        assertThat(analytics.snapshot()).isSameAs(before);
+
+        assertThat(productService.saveProduct(new Product(90_001L, "Chess Set", 40.0, "Games")).block()).isNull();
+        Product previous = productService.saveProduct(new Product(90_001L, "Chess Set", 55.0, "Toys")).block();
+        assertThat(previous).isEqualTo(new Product(90_001L, "Chess Set", 40.0, "Games"));
+
+        ProductAnalytics.Snapshot updated = productService.getProductAnalytics().block();
+        assertThat(updated.version()).isGreaterThan(before.version());
+        assertThat(updated.totalProducts()).isEqualTo(before.totalProducts() + 1);
+        assertThat(updated.totalValue()).isCloseTo(before.totalValue() + 55.0, within(1e-6));
+        assertThat(updated.categories()).contains("Toys").doesNotContain("Games");
+        assertThat(productService.getProduct(90_001L).block().price()).isEqualTo(55.0);
+
+        assertThat(productService.deleteProduct(90_001L).block()).isTrue();
+        assertThat(productService.deleteProduct(90_001L).block()).isFalse();
+
+        ProductAnalytics.Snapshot after = analytics.snapshot();
+        assertThat(after.totalProducts()).isEqualTo(before.totalProducts());
+        assertThat(after.totalValue()).isCloseTo(before.totalValue(), within(1e-6));
+        assertThat(after.categories()).isEqualTo(before.categories());
+        assertThat(productService.getProduct(90_001L).block()).isNull();
+    }
+}
@@ -0,0 +1,71 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import com.brian.springstarter.examples.SpringBoot4Features.ProductClient;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductClientTests {
+
+    static final ProductStubServer upstream = ProductStubServer.start();
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("starter.product-client.base-url", upstream::baseUrl);
+        registry.add("starter.product-client.protocol", () -> "h2c");
+        registry.add("starter.product-client.max-connections", () -> 2);
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @Autowired
+    ProductClient productClient;
+
+    @Test
+    void callsTheUpstreamThroughTheProxy() {
+        assertThat(productClient.getProduct(7L).block())
+                .isEqualTo(new Product(7L, "Upstream 7", 17.0, "Remote"));
+        assertThat(productClient.getProducts().map(Product::id).collectList().block()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void multiplexesConcurrentCallsOverTheConnectionPool() {
+        // Every response takes 200ms: over HTTP/1.1, 2 connections would serve 200 calls in 20s and most would
+        // fail after the 500ms pending-acquire timeout. As HTTP/2 streams they all run at once
+        upstream.slowResponses(1.0, Duration.ofMillis(200));
+        List<Product> products;
+        try {
+            products = Flux.range(1, 200)
+                    .flatMap(id -> productClient.getProduct((long) id), 200)
+                    .collectList()
+                    .block(Duration.ofSeconds(5));
+        } finally {
+            upstream.healthy();
+        }
+
+        assertThat(products).hasSize(200);
+        assertThat(upstream.protocols()).containsExactly(ProductStubServer.H2C);
+        assertThat(upstream.connections()).isBetween(1, 2);
+        List<Meter> poolMeters = Metrics.globalRegistry.getMeters().stream()
+                .filter(meter -> meter.getId().getName().startsWith("reactor.netty.connection.provider"))
+                .filter(meter -> ProductClientConfiguration.POOL_NAME.equals(meter.getId().getTag("name")))
+                .toList();
+        assertThat(poolMeters).isNotEmpty();
+    }
+}
@@ -0,0 +1,53 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ProductColumnsTests {
+
+    @Test
+    void keepsRowsInIdOrderAndEncodesCategories() {
+        ProductColumns columns = ProductColumns.of(List.of(
+                new Product(3L, "Google Pixel", 799.0, "Electronics"),
+                new Product(1L, "Desk Lamp", 35.0, "Home"),
+                new Product(2L, "Mouse", 25.0, "Electronics")));
+
+        assertThat(columns.size()).isEqualTo(3);
+        assertThat(columns.product(0)).isEqualTo(new Product(1L, "Desk Lamp", 35.0, "Home"));
+        assertThat(columns.product(2)).isEqualTo(new Product(3L, "Google Pixel", 799.0, "Electronics"));
+        assertThat(columns.selectPriceRange(25.0, 35.0)).containsExactly(0b011L);
+        assertThat(columns.totalValue()).isCloseTo(859.0, within(1e-9));
+        assertThat(columns.categories()).containsExactly("Electronics", "Home");
+    }
+
+    @Test
+    void searchAgreesWithLinearScan() {
+        Random random = new Random(7);
+        String[] words = {"Wireless", "MOUSE", "desk", "Lamp", "phone", "Case", "pro", "mini"};
+        List<Product> catalog = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + id;
+            catalog.add(new Product(id, name, random.nextInt(1_000), "Home"));
+        }
+        ProductColumns columns = ProductColumns.of(catalog);
+
+        for (String query : new String[] {"", "o", "se", "Mouse", "SK LA", "e 1", "1999", "nope"}) {
+            for (double[] range : new double[][] {{0, 1_000}, {100, 200}, {500, 500}, {300, 100}}) {
+                List<Product> expected = catalog.stream()
+                        .filter(p -> p.name().toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT)))
+                        .filter(p -> p.price() >= range[0] && p.price() <= range[1])
+                        .toList();
+                assertThat(columns.search(query, range[0], range[1])).as("%s in %s..%s", query, range[0], range[1])
+                        .containsExactlyElementsOf(expected);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "starter.product-client.retry.max-attempts=0",
+        "starter.product-client.circuit-breaker.minimum-calls=5",
+        "starter.product-client.circuit-breaker.open-duration=1m"
+})
+class ProductDetailsFallbackTests {
+
+    static final ProductStubServer upstream = ProductStubServer.start();
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("starter.product-client.base-url", upstream::baseUrl);
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @Autowired
+    SpringBoot4Features controller;
+
+    @Autowired
+    CircuitBreaker productClientCircuitBreaker;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void fallsBackToTheLocalCatalogAndStopsCallingAFailingUpstream() {
+        assertThat(controller.getProductDetails(3L).block()).isEqualTo(new Product(3L, "Upstream 3", 13.0, "Remote"));
+
+        // One success and four failures: the breaker opens on the fifth call in the window
+        upstream.failures(1.0);
+        for (int i = 0; i < 4; i++) {
+            assertThat(controller.getProductDetails(3L).block())
+                    .isEqualTo(new Product(3L, "Google Pixel", 799.0, "Electronics"));
+        }
+        assertThat(productClientCircuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int requestsBefore = upstream.requests();
+        assertThat(controller.getProductDetails(3L).block().name()).isEqualTo("Google Pixel");
+        assertThat(upstream.requests()).isEqualTo(requestsBefore);
+        assertThat(meterRegistry.get("starter.circuit.rejected").tag("breaker", "product-client").counter().count())
+                .isOne();
+    }
+}
@@ -0,0 +1,40 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import com.brian.springstarter.examples.SpringBoot4Features.ProductClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// No starter.product-client.base-url: no upstream client, details come from the local catalog only
+@SpringBootTest
+class ProductDetailsTests {
+
+    @Autowired
+    SpringBoot4Features controller;
+
+    @Autowired
+    ObjectProvider<ProductClient> productClient;
+
+    @Test
+    void answersFromTheLocalCatalogWithoutAnUpstream() {
+        assertThat(productClient.getIfAvailable()).isNull();
+        assertThat(controller.getProductDetails(3L).block())
+                .isEqualTo(new Product(3L, "Google Pixel", 799.0, "Electronics"));
+    }
+
+    @Test
+    void unknownIdsAreNotFoundAndInvalidIdsGetTheDefaultProduct() {
+        assertThatThrownBy(() -> controller.getProductDetails(100_000L).block())
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        assertThat(controller.getProductDetails(0L).block())
+                .isEqualTo(new Product(0L, "Default Product", 0.0, "None"));
+    }
+}
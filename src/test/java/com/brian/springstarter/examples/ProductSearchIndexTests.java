@@ -0,0 +1,59 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTests {
+
+    private static final List<Product> CATALOG = List.of(
+            new Product(5L, "Mouse", 25.0, "Electronics"),
+            new Product(1L, "iPhone", 999.0, "Electronics"),
+            new Product(3L, "Google Pixel", 799.0, "Electronics"),
+            new Product(2L, "Samsung Galaxy", 899.0, "Electronics"),
+            new Product(4L, "Laptop", 1200.0, "Electronics"),
+            new Product(9L, "Desk Lamp", 35.0, "Home"),
+            new Product(7L, "Smartphone", 699.99, "Electronics"));
+
+    private final ProductSearchIndex index = ProductSearchIndex.build(CATALOG);
+
+    @Test
+    void matchesNameCaseInsensitivelyWithinPriceRangeInIdOrder() {
+        assertThat(index.search("PIXEL", 0, 1_000)).extracting(Product::id).containsExactly(3L);
+        assertThat(index.search("pixel", 0, 500)).isEmpty();
+        assertThat(index.search("a", 30, 1_000)).extracting(Product::id).containsExactly(2L, 7L, 9L);
+        // Price bounds are inclusive
+        assertThat(index.search("", 25.0, 35.0)).extracting(Product::id).containsExactly(5L, 9L);
+        assertThat(index.search("lamp", 100, 10)).isEmpty();
+        assertThat(index.search("xyz", 0, Double.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    void agreesWithLinearScan() {
+        Random random = new Random(42);
+        String[] words = {"wireless", "mouse", "desk", "lamp", "phone", "case", "pro", "mini"};
+        List<Product> catalog = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + id;
+            catalog.add(new Product(id, name, random.nextInt(1_000), "Home"));
+        }
+        ProductSearchIndex large = ProductSearchIndex.build(catalog);
+
+        for (String query : new String[] {"", "o", "se", "mouse", "SK LA", "e 1", "1999", "pro mini", "nope"}) {
+            for (double[] range : new double[][] {{0, 1_000}, {100, 200}, {500, 500}, {0, Double.MAX_VALUE}}) {
+                List<Product> expected = catalog.stream()
+                        .filter(p -> p.name().toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT)))
+                        .filter(p -> p.price() >= range[0] && p.price() <= range[1])
+                        .toList();
+                assertThat(large.search(query, range[0], range[1])).as("%s in %s..%s", query, range[0], range[1])
+                        .containsExactlyElementsOf(expected);
+            }
+        }
+    }
+}
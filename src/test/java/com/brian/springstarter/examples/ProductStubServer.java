@@ -0,0 +1,110 @@
+package com.brian.springstarter.examples;
+
+import io.netty.handler.codec.http2.HttpConversionUtil;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Local stand-in for the upstream product service behind ProductClient, on a random port.
+// Speaks HTTP/1.1 and h2c; products are generated from the id. getProduct can be made to answer
+// slowly or with 503 for a random fraction of requests. Records the protocol and the client connection
+// (remote address) of every request, so tests can tell HTTP/2 streams from pooled HTTP/1.1 connections
+final class ProductStubServer implements AutoCloseable {
+
+    static final String HTTP_1_1 = "HTTP/1.1";
+    static final String H2C = "h2c";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Set<String> protocols = ConcurrentHashMap.newKeySet();
+    private final Set<SocketAddress> connections = ConcurrentHashMap.newKeySet();
+    private volatile double slowFraction;
+    private volatile Duration slowDelay = Duration.ZERO;
+    private volatile double failureFraction;
+    private final DisposableServer server;
+
+    private ProductStubServer() {
+        this.server = HttpServer.create()
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .route(routes -> routes
+                        .get("/external-api/products/{id}", (request, response) -> {
+                            record(request);
+                            ThreadLocalRandom random = ThreadLocalRandom.current();
+                            if (random.nextDouble() < failureFraction) {
+                                return response.status(503).send();
+                            }
+                            long id = Long.parseLong(request.param("id"));
+                            Mono<String> body = Mono.just(json(id));
+                            if (random.nextDouble() < slowFraction) {
+                                body = body.delayElement(slowDelay);
+                            }
+                            return response.header("Content-Type", "application/json").sendString(body);
+                        })
+                        .get("/external-api/products", (request, response) -> {
+                            record(request);
+                            return response.header("Content-Type", "application/json")
+                                    .sendString(Mono.just("[" + json(1) + "," + json(2) + "]"));
+                        }))
+                .bindNow();
+    }
+
+    static ProductStubServer start() {
+        return new ProductStubServer();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    Set<String> protocols() {
+        return Set.copyOf(protocols);
+    }
+
+    int connections() {
+        return connections.size();
+    }
+
+    void slowResponses(double fraction, Duration delay) {
+        this.slowDelay = delay;
+        this.slowFraction = fraction;
+    }
+
+    void failures(double fraction) {
+        this.failureFraction = fraction;
+    }
+
+    void healthy() {
+        slowResponses(0, Duration.ZERO);
+        failures(0);
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    // Netty turns each HTTP/2 stream into an HTTP/1.1-style request carrying the stream id as an extension header
+    private void record(HttpServerRequest request) {
+        requests.incrementAndGet();
+        boolean http2 = request.requestHeaders().contains(HttpConversionUtil.ExtensionHeaderNames.STREAM_ID.text());
+        protocols.add(http2 ? H2C : HTTP_1_1);
+        connections.add(request.remoteAddress());
+    }
+
+    private static String json(long id) {
+        return "{\"id\":" + id + ",\"name\":\"Upstream " + id + "\",\"price\":" + (10.0 + id) + ",\"category\":\"Remote\"}";
+    }
+}
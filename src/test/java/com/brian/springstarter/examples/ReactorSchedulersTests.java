@@ -0,0 +1,62 @@
+package com.brian.springstarter.examples;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactorSchedulersTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ReactorSchedulers schedulers = new ReactorSchedulers(new ReactorSchedulerProperties(true, Map.of(
+            "ticks", new ReactorSchedulerProperties.Spec(ReactorSchedulerProperties.Type.PARALLEL, 2, 0),
+            "virtual", new ReactorSchedulerProperties.Spec(ReactorSchedulerProperties.Type.VIRTUAL_THREADS, 4, 100))),
+            meterRegistry);
+
+    @AfterEach
+    void dispose() {
+        schedulers.destroy();
+    }
+
+    @Test
+    void runsEachWorkloadOnItsConfiguredScheduler() {
+        Thread tick = Mono.delay(Duration.ofMillis(10), schedulers.scheduler("ticks"))
+                .map(i -> Thread.currentThread())
+                .block();
+        assertThat(tick.getName()).startsWith("starter-ticks");
+        assertThat(tick.isVirtual()).isFalse();
+
+        Thread blocking = Mono.fromCallable(Thread::currentThread)
+                .subscribeOn(schedulers.scheduler("virtual"))
+                .block();
+        assertThat(blocking.isVirtual()).isTrue();
+        assertThat(blocking.getName()).startsWith("starter-virtual");
+
+        Thread unconfigured = Mono.delay(Duration.ofMillis(10), schedulers.scheduler("other"))
+                .map(i -> Thread.currentThread())
+                .block();
+        assertThat(unconfigured.getName()).startsWith("parallel");
+        assertThat(Schedulers.isNonBlockingThread(unconfigured)).isTrue();
+    }
+
+    @Test
+    void exportsTaskMetricsPerScheduler() {
+        Mono.delay(Duration.ofMillis(10), schedulers.scheduler("ticks")).block();
+
+        assertThat(meterRegistry.getMeters())
+                .map(Meter::getId)
+                .filteredOn(id -> "ticks".equals(id.getTag("scheduler")))
+                .extracting(Meter.Id::getName)
+                .isNotEmpty()
+                .allMatch(name -> name.startsWith("starter.scheduler.tasks."));
+    }
+}
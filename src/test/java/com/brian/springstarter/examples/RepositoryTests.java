@@ -0,0 +1,48 @@
+package com.brian.springstarter.examples;
+
+import com.brian.springstarter.examples.SpringBoot4Features.OrderItem;
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Runs against the default in-memory H2 database in MySQL mode, seeded by schema.sql / data.sql
+@SpringBootTest
+class RepositoryTests {
+
+    @Autowired
+    ProductRepository products;
+
+    @Autowired
+    OrderRepository orders;
+
+    @Test
+    void findsProductById() {
+        assertThat(products.findById(3).block())
+                .isEqualTo(new Product(3L, "Google Pixel", 799.0, "Electronics"));
+        assertThat(products.findById(100_000).block()).isNull();
+    }
+
+    @Test
+    void searchMatchesNameCaseInsensitivelyWithinPriceRange() {
+        List<Product> found = products.search("PIXEL", 0, 1_000).collectList().block();
+        assertThat(found).extracting(Product::name).containsExactly("Google Pixel");
+
+        assertThat(products.search("pixel", 0, 500).collectList().block()).isEmpty();
+        // LIKE wildcards in the query are matched literally
+        assertThat(products.search("%", 0, Double.MAX_VALUE).collectList().block()).isEmpty();
+    }
+
+    @Test
+    void findsOrdersAndItemsOfUser() {
+        assertThat(orders.findOrderIds(1).block()).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(orders.findItems(1).block())
+                .extracting(OrderItem::productId, OrderItem::quantity)
+                .containsExactly(tuple(596L, 4), tuple(677L, 3));
+    }
+}
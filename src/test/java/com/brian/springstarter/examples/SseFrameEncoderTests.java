@@ -0,0 +1,128 @@
+package com.brian.springstarter.examples;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.brian.springstarter.examples.SpringBoot4Features.Product;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.ResourceLeakDetector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Frames outlive their tick in the replay-latest sink and in slow subscribers' buffers; every subscriber must
+// still write the bytes of the event it was given, and nothing may leak, with every buffer allocation tracked
+class SseFrameEncoderTests {
+
+    private final SseFrameEncoder encoder = new SseFrameEncoder(ServerCodecConfigurer.create());
+    private final Sinks.Many<Product> events = Sinks.many().multicast().directBestEffort();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final ListAppender<ILoggingEvent> leaks = new ListAppender<>();
+    private ResourceLeakDetector.Level level;
+    private BroadcastStream<byte[]> frames;
+
+    @BeforeEach
+    void paranoid() {
+        level = ResourceLeakDetector.getLevel();
+        ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+        leaks.start();
+        leakLogger().addAppender(leaks);
+        frames = new BroadcastStream<>(encoder.encode(events.asFlux()), true, 2,
+                BroadcastStream.SlowConsumerPolicy.DROP_OLDEST, dropped::incrementAndGet);
+    }
+
+    @AfterEach
+    void restore() {
+        frames.dispose();
+        leakLogger().detachAppender(leaks);
+        ResourceLeakDetector.setLevel(level);
+    }
+
+    @Test
+    void replayedAndBufferedFramesKeepTheirBytes() {
+        SlowSubscriber slow = new SlowSubscriber();
+        encoder.subscribe(frames).subscribe(slow);
+        for (long id = 1; id <= 10; id++) {
+            events.tryEmitNext(product(id));
+        }
+
+        // Subscribes after the last tick, so it only sees the frame held by the sink
+        String replayed = encoder.subscribe(frames).map(SseFrameEncoderTests::write).blockFirst();
+        assertThat(replayed).isEqualTo(frame(10));
+
+        // Requested nothing yet: the eight oldest were pushed out of its buffer, the last two are still held
+        assertThat(dropped).hasValue(8);
+        slow.request(2);
+        assertThat(slow.written).containsExactly(frame(9), frame(10));
+
+        events.tryEmitNext(product(11));
+        slow.request(1);
+        assertThat(slow.written).containsExactly(frame(9), frame(10), frame(11));
+        slow.dispose();
+
+        assertNoLeaks();
+    }
+
+    @Test
+    void textEventsArePrefixedLineByLine() {
+        assertThat(new String(encoder.encode("a\nb"), StandardCharsets.UTF_8)).isEqualTo("data:a\ndata:b\n\n");
+    }
+
+    // Leaks are reported when a later allocation finds a collected buffer that was never released
+    private void assertNoLeaks() {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            ByteBufAllocator.DEFAULT.directBuffer(64).release();
+        }
+        assertThat(leaks.list).extracting(ILoggingEvent::getFormattedMessage).noneMatch(m -> m.contains("LEAK"));
+    }
+
+    private String frame(long id) {
+        return new String(encoder.encode(product(id)), StandardCharsets.UTF_8);
+    }
+
+    private static Product product(long id) {
+        return new Product(id, "Product-" + id, 100.0 + id, "Electronics");
+    }
+
+    // What the connection would do: copy the bytes out to the socket and release the buffer
+    private static String write(DataBuffer buffer) {
+        try {
+            return buffer.toString(StandardCharsets.UTF_8);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private static Logger leakLogger() {
+        return (Logger) LoggerFactory.getLogger(ResourceLeakDetector.class);
+    }
+
+    private static final class SlowSubscriber extends BaseSubscriber<DataBuffer> {
+
+        final List<String> written = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+        }
+
+        @Override
+        protected void hookOnNext(DataBuffer buffer) {
+            written.add(write(buffer));
+        }
+    }
+}